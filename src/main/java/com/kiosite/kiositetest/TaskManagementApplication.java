@@ -1,12 +1,18 @@
 package com.kiosite.kiositetest;
 
+import com.kiosite.kiositetest.cli.TaskImportCommand;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class TaskManagementApplication {
     public static void main(String[] args) {
-        SpringApplication.run(TaskManagementApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(TaskManagementApplication.class, args);
+        if (context.getBeanNamesForType(TaskImportCommand.class).length > 0) {
+            // The import has run; exit with its outcome instead of serving requests.
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
\ No newline at end of file
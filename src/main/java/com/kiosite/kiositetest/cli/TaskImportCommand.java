@@ -0,0 +1,99 @@
+package com.kiosite.kiositetest.cli;
+
+import com.kiosite.kiositetest.config.JpaStorage;
+import com.kiosite.kiositetest.entity.ImportFormat;
+import com.kiosite.kiositetest.entity.ImportJob;
+import com.kiosite.kiositetest.entity.ImportStatus;
+import com.kiosite.kiositetest.service.TaskImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Command-line entry point for the bulk task import.
+ * <p>
+ * Runs when {@code tasks.import.file} is set and imports the file. The application then
+ * exits, through {@link SpringApplication#exit}, with status 0 if the import completed or 1
+ * otherwise:
+ * <pre>
+ * java -jar task-management.jar --spring.main.web-application-type=none \
+ *     --spring.datasource.url=jdbc:hsqldb:file:data/tasksdb \
+ *     --tasks.import.file=tasks.csv [--tasks.import.format=csv] [--tasks.import.job-id=UUID]
+ * </pre>
+ * The import job has to outlive the run to be resumed, so an in-memory datasource is refused.
+ * The format defaults to the file extension ({@code .csv}, {@code .ndjson} or {@code .jsonl}).
+ * Passing the job id printed by a failed run resumes it after its last committed chunk.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("tasks.import.file")
+@JpaStorage
+public class TaskImportCommand implements ApplicationRunner, ExitCodeGenerator {
+
+    private final TaskImportService taskImportService;
+    private final Path file;
+    private final String format;
+    private final String jobId;
+    private int exitCode = 1;
+
+    public TaskImportCommand(TaskImportService taskImportService,
+                             @Value("${tasks.import.file}") Path file,
+                             @Value("${tasks.import.format:}") String format,
+                             @Value("${tasks.import.job-id:}") String jobId,
+                             @Value("${spring.datasource.url:}") String datasourceUrl) {
+        if (datasourceUrl.startsWith("jdbc:hsqldb:mem:")) {
+            throw new IllegalStateException("Importing into the in-memory database " + datasourceUrl
+                    + " would lose the tasks and the import job on exit, set spring.datasource.url to a persistent database");
+        }
+        this.taskImportService = taskImportService;
+        this.file = file;
+        this.format = format;
+        this.jobId = jobId;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        ImportJob job;
+        try (InputStream input = Files.newInputStream(file)) {
+            job = taskImportService.importTasks(jobId.isBlank() ? null : UUID.fromString(jobId), resolveFormat(), input).job();
+        }
+        if (job.getStatus() == ImportStatus.COMPLETED) {
+            log.info("Imported {} tasks from {} ({} rows rejected)", job.getImported(), file, job.getRejected());
+        } else {
+            log.error("Import of {} failed after {} rows: {}. Resume with --tasks.import.job-id={}",
+                    file, job.getRowsCommitted(), job.getLastError(), job.getId());
+        }
+        exitCode = job.getStatus() == ImportStatus.COMPLETED ? 0 : 1;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private ImportFormat resolveFormat() {
+        if (!format.isBlank()) {
+            return ImportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        }
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return ImportFormat.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return ImportFormat.NDJSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + file + ", set tasks.import.format");
+    }
+}
@@ -0,0 +1,64 @@
+package com.kiosite.kiositetest.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warns about settings that have no effect in the fast-startup mode.
+ * <p>
+ * The AOT-processed build decides at build time, with only the {@code fast-startup} profile
+ * active, which beans exist. Features switched on by a property or a profile are therefore
+ * left out of the AOT build whatever is set when it runs.
+ */
+@Slf4j
+@Component
+@Profile("fast-startup")
+public class AotFrozenConditionsWarning {
+
+    private static final List<String> FEATURE_PROPERTIES = List.of(
+            "tasks.warm-up.enabled",
+            "tasks.datasource.replica.url",
+            "tasks.sql-stats.enabled",
+            "tasks.import.file");
+
+    private static final List<String> STORAGE_PROFILES = List.of("offheap", "sharded");
+
+    private final Environment environment;
+
+    public AotFrozenConditionsWarning(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void warnAboutIgnoredSettings() {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        List<String> ignored = new ArrayList<>();
+        for (String property : FEATURE_PROPERTIES) {
+            // Same test as @ConditionalOnProperty without havingValue: set and not "false".
+            String value = environment.getProperty(property);
+            if (value != null && !value.equalsIgnoreCase("false")) {
+                ignored.add(property);
+            }
+        }
+        for (String profile : STORAGE_PROFILES) {
+            if (environment.acceptsProfiles(Profiles.of(profile))) {
+                ignored.add("profile " + profile);
+            }
+        }
+        if (!ignored.isEmpty()) {
+            log.warn("Ignoring {}: the fast-startup build fixed its beans at build time, run the plain jar to use them",
+                    String.join(", ", ignored));
+        }
+    }
+}
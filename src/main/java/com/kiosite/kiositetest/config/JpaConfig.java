@@ -5,5 +5,6 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @Configuration
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
+@JpaStorage
 public class JpaConfig {
 }
\ No newline at end of file
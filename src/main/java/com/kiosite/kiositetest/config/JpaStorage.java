@@ -0,0 +1,18 @@
+package com.kiosite.kiositetest.config;
+
+import org.springframework.context.annotation.Profile;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks beans that need the JPA storage engine.
+ * <p>
+ * These beans are skipped when an alternative engine profile, {@code offheap} or
+ * {@code sharded}, is active, since no JPA repositories exist in that case.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Profile("!offheap & !sharded")
+public @interface JpaStorage {
+}
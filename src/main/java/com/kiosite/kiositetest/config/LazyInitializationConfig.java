@@ -0,0 +1,35 @@
+package com.kiosite.kiositetest.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.lang.reflect.Method;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * Keeps background components eager when {@code spring.main.lazy-initialization} is on.
+     * <p>
+     * Scheduled methods are only registered once their bean is created, and startup event
+     * listeners (such as the existence filter seeding) would otherwise run on the first
+     * request instead of before it.
+     *
+     * @return Filter excluding beans with {@link Scheduled} or {@link EventListener} methods
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter backgroundComponentsExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && !MethodIntrospector.selectMethods(beanType, LazyInitializationConfig::backgroundMarker).isEmpty();
+    }
+
+    private static Boolean backgroundMarker(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(method, EventListener.class) ? Boolean.TRUE : null;
+    }
+}
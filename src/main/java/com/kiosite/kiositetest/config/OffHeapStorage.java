@@ -0,0 +1,17 @@
+package com.kiosite.kiositetest.config;
+
+import org.springframework.context.annotation.Profile;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks beans of the off-heap storage engine, enabled with the {@code offheap} profile.
+ *
+ * @see JpaStorage
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Profile("offheap")
+public @interface OffHeapStorage {
+}
@@ -0,0 +1,36 @@
+package com.kiosite.kiositetest.config;
+
+import com.kiosite.kiositetest.repository.offheap.OffHeapTaskStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Slf4j
+@Configuration
+@OffHeapStorage
+public class OffHeapStoreConfig {
+
+    /**
+     * Creates the off-heap task store, restoring the last snapshot if one exists.
+     *
+     * @param initialCapacity Number of tasks the index can hold before growing
+     * @param snapshotPath    Snapshot file, or blank to keep tasks in memory only
+     * @return The task store
+     * @throws IOException if an existing snapshot cannot be read
+     */
+    @Bean(destroyMethod = "close")
+    public OffHeapTaskStore offHeapTaskStore(@Value("${tasks.offheap.initial-capacity:65536}") int initialCapacity,
+                                             @Value("${tasks.offheap.snapshot.path:}") String snapshotPath) throws IOException {
+        OffHeapTaskStore store = new OffHeapTaskStore(initialCapacity);
+        if (!snapshotPath.isBlank() && Files.exists(Path.of(snapshotPath))) {
+            store.restore(Path.of(snapshotPath));
+            log.info("Restored {} tasks from {}", store.count(), snapshotPath);
+        }
+        return store;
+    }
+}
@@ -0,0 +1,91 @@
+package com.kiosite.kiositetest.config;
+
+import com.kiosite.kiositetest.datasource.HsqlReplicaSynchronizer;
+import com.kiosite.kiositetest.datasource.ReadReplicaRoutingDataSource;
+import com.kiosite.kiositetest.datasource.ReplicaLagGuard;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Routes read-only transactions to a replica database when {@code tasks.datasource.replica.url}
+ * is set.
+ * <p>
+ * {@code spring.datasource} keeps describing the primary. The replica gets its own pool,
+ * tuned through {@code tasks.datasource.replica.hikari}. With
+ * {@code tasks.datasource.replica.local-sync.enabled}, the replica is an HSQLDB database
+ * kept in sync by this application instead of by real replication.
+ */
+@Configuration
+@ConditionalOnProperty("tasks.datasource.replica.url")
+@JpaStorage
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("tasks.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${tasks.datasource.replica.url}") String url,
+                                              @Value("${tasks.datasource.replica.username:}") String username,
+                                              @Value("${tasks.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(@Value("${tasks.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                           @Value("${tasks.datasource.replica.local-sync.enabled:false}") boolean localSync) {
+        return new ReplicaLagGuard(maxLag, localSync);
+    }
+
+    /**
+     * The data source used by JPA. Connections are fetched lazily so that the routing sees
+     * whether the transaction is read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagGuard replicaLagGuard,
+                                 AuditorAware<String> auditorAware) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, replica, replicaLagGuard, auditorAware));
+    }
+
+    @Configuration
+    @ConditionalOnProperty("tasks.datasource.replica.local-sync.enabled")
+    static class LocalSyncConfig {
+
+        @Bean
+        public HsqlReplicaSynchronizer hsqlReplicaSynchronizer(@Qualifier("primaryDataSource") DataSource primary,
+                                                               @Qualifier("replicaDataSource") DataSource replica,
+                                                               ReplicaLagGuard replicaLagGuard) {
+            return new HsqlReplicaSynchronizer(primary, replica, replicaLagGuard);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.kiosite.kiositetest.config;
+
+import org.springframework.context.annotation.Profile;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks beans of the hash-sharded storage engine, enabled with the {@code sharded} profile.
+ *
+ * @see JpaStorage
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Profile("sharded")
+public @interface ShardedStorage {
+}
@@ -0,0 +1,53 @@
+package com.kiosite.kiositetest.config;
+
+import com.kiosite.kiositetest.repository.sharded.ShardedTaskStore;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Configuration
+@ShardedStorage
+public class ShardedStoreConfig {
+
+    /**
+     * Creates the sharded task store with one connection pool per shard. The pools are not
+     * beans of their own, so that nothing expecting a single {@code DataSource} picks one of
+     * them up; the store closes them.
+     *
+     * @param shards   Number of shards
+     * @param url      JDBC URL pattern, with {@code %d} standing for the shard number
+     * @param username Database user of every shard
+     * @param password Database password of every shard
+     * @param poolSize Maximum connections per shard
+     * @return The task store
+     */
+    @Bean(destroyMethod = "close")
+    public ShardedTaskStore shardedTaskStore(@Value("${tasks.sharded.shards:4}") int shards,
+                                             @Value("${tasks.sharded.url:jdbc:hsqldb:mem:tasks-shard-%d}") String url,
+                                             @Value("${tasks.sharded.username:sa}") String username,
+                                             @Value("${tasks.sharded.password:}") String password,
+                                             @Value("${tasks.sharded.pool-size:4}") int poolSize) {
+        List<HikariDataSource> dataSources = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url.formatted(shard))
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSources.add(dataSource);
+        }
+        ShardedTaskStore store = new ShardedTaskStore(dataSources);
+        log.info("Opened {} task shards holding {} tasks", shards, store.count());
+        return store;
+    }
+}
@@ -0,0 +1,34 @@
+package com.kiosite.kiositetest.config;
+
+import com.kiosite.kiositetest.monitoring.SqlStatementInspector;
+import com.kiosite.kiositetest.monitoring.SqlStatementStatsFilter;
+import com.kiosite.kiositetest.monitoring.SqlTimingSessionListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Counts the SQL statements and JDBC time of each HTTP request when
+ * {@code tasks.sql-stats.enabled} is set. See {@link SqlStatementStatsFilter}.
+ */
+@Configuration
+@ConditionalOnProperty("tasks.sql-stats.enabled")
+@JpaStorage
+public class SqlStatementStatsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementStatsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingSessionListener.class.getName());
+        };
+    }
+
+    @Bean
+    public SqlStatementStatsFilter sqlStatementStatsFilter(MeterRegistry meterRegistry) {
+        return new SqlStatementStatsFilter(meterRegistry);
+    }
+}
@@ -1,16 +1,23 @@
 package com.kiosite.kiositetest.controller;
 
+import com.kiosite.kiositetest.controller.dto.TaskChangesResponseDTO;
+import com.kiosite.kiositetest.controller.dto.TaskLookupRequestDTO;
+import com.kiosite.kiositetest.controller.dto.TaskLookupResponseDTO;
 import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
 import com.kiosite.kiositetest.controller.dto.TaskResponseDTO;
 import com.kiosite.kiositetest.entity.Status;
 import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.InvalidCursorException;
 import com.kiosite.kiositetest.exception.InvalidStatusException;
+import com.kiosite.kiositetest.service.IdempotencyService;
+import com.kiosite.kiositetest.service.TaskChangeService;
 import com.kiosite.kiositetest.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.apache.coyote.BadRequestException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +26,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -31,15 +41,26 @@ import java.util.UUID;
 @Tag(name = "Tasks", description = "CRUD API for Task management")
 public class TaskController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    static final int MAX_LOOKUP_IDS = 100;
+    static final int MAX_NEXT_TASKS = 100;
+    static final int MAX_CHANGES = 1000;
+
     private final TaskService taskService;
+    private final TaskChangeService taskChangeService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Get a paginated list of tasks, optionally filtered by status.
+     * Archived tasks are only listed when {@code archived=true}.
      *
-     * @param status Optional task status to filter (PENDING, IN_PROGRESS, DONE)
-     * @param page   Page number, starts from 0
-     * @param size   Number of tasks per page
-     * @param sort   Field to sort by (e.g., title, createdAt)
+     * @param status   Optional task status to filter (PENDING, IN_PROGRESS, DONE)
+     * @param page     Page number, starts from 0
+     * @param size     Number of tasks per page
+     * @param sort     Field to sort by (e.g., title, createdAt)
+     * @param archived Whether to list archived tasks instead of live ones
      * @return Paginated list of TaskResponseDTO
      */
     @GetMapping
@@ -52,24 +73,48 @@ public class TaskController {
             @Parameter(description = "Page size")
             @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort by field, e.g., title, createdAt")
-            @RequestParam(defaultValue = "createdAt") String sort
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @Parameter(description = "List archived tasks instead of live ones")
+            @RequestParam(defaultValue = "false") boolean archived
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sort).ascending());
+        if (archived) {
+            return ResponseEntity.ok(taskService.getArchivedTasks(status, pageable).map(TaskResponseDTO::fromEntity));
+        }
         Page<Task> tasks = taskService.getAllTasks(status, pageable);
         return ResponseEntity.ok(tasks.map(TaskResponseDTO::fromEntity));
     }
 
     /**
      * Create a new task.
+     * <p>
+     * When an {@code Idempotency-Key} header is sent, retries with the same key return the
+     * originally created task instead of inserting a new one.
      *
+     * @param idempotencyKey Optional client-generated key identifying this creation
+     * @param principal      Authenticated user, used to scope the idempotency key
      * @param taskRequestDTO Task data to create
      * @return The created Task entity
+     * @throws BadRequestException If the idempotency key is too long
      */
     @PostMapping
     @Operation(summary = "Create a new task")
-    public ResponseEntity<Task> createTask(@Valid @RequestBody TaskRequestDTO taskRequestDTO) {
-        Task created = taskService.createTask(taskRequestDTO);
-        return new ResponseEntity<>(created, HttpStatus.CREATED);
+    public ResponseEntity<Task> createTask(
+            @Parameter(description = "Optional key making retries of this request safe")
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            Principal principal,
+            @Valid @RequestBody TaskRequestDTO taskRequestDTO
+    ) throws BadRequestException {
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(taskService.createTask(taskRequestDTO), HttpStatus.CREATED);
+        }
+        checkIdempotencyKey(idempotencyKey);
+
+        IdempotencyService.Result<Task> result = idempotencyService.execute(
+                principal.getName(), idempotencyKey, taskRequestDTO, () -> taskService.createTask(taskRequestDTO));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.value());
     }
 
     /**
@@ -87,6 +132,81 @@ public class TaskController {
         return ResponseEntity.ok(TaskResponseDTO.fromEntity(task));
     }
 
+    /**
+     * Get the most urgent pending tasks, by priority and then due date.
+     *
+     * @param limit Number of tasks to return, at most {@value #MAX_NEXT_TASKS}
+     * @return Pending tasks, most urgent first; tasks without a due date come last within a priority
+     * @throws BadRequestException If the limit is out of range
+     */
+    @GetMapping("/next")
+    @Operation(summary = "Get the most urgent pending tasks")
+    public ResponseEntity<List<TaskResponseDTO>> getNextTasks(
+            @Parameter(description = "Number of tasks to return")
+            @RequestParam(defaultValue = "10") int limit
+    ) throws BadRequestException {
+        if (limit < 1 || limit > MAX_NEXT_TASKS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_NEXT_TASKS);
+        }
+        return ResponseEntity.ok(taskService.getNextTasks(limit).stream().map(TaskResponseDTO::fromEntity).toList());
+    }
+
+    /**
+     * Get the tasks created, updated or deleted since a cursor, for clients keeping a local
+     * copy of the tasks. Without a cursor, every task is returned as created.
+     *
+     * @param since Cursor returned by the previous call
+     * @param limit Maximum number of changes to return, at most {@value #MAX_CHANGES}
+     * @return Changed tasks, ids of deleted tasks and the cursor to pass next; when
+     * {@code hasMore} is set, more changes can be fetched right away
+     * @throws BadRequestException    If the limit is out of range
+     * @throws InvalidCursorException If the cursor cannot be decoded
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Get the task changes since a cursor")
+    public ResponseEntity<TaskChangesResponseDTO> getChanges(
+            @Parameter(description = "Cursor returned by the previous call; omit for a full sync")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changes to return")
+            @RequestParam(defaultValue = "100") int limit
+    ) throws BadRequestException {
+        if (limit < 1 || limit > MAX_CHANGES) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_CHANGES);
+        }
+        TaskChangeService.ChangeCursor cursor = since != null ? TaskChangeService.ChangeCursor.decode(since) : null;
+        return ResponseEntity.ok(TaskChangesResponseDTO.fromChanges(taskChangeService.getChanges(cursor, limit)));
+    }
+
+    /**
+     * Get several tasks by their IDs, e.g. {@code GET /tasks?ids=a,b,c}.
+     *
+     * @param ids Task UUIDs, at most {@value #MAX_LOOKUP_IDS}
+     * @return The found tasks in request order and the ids that were not found
+     * @throws BadRequestException If too many ids are requested, or one is empty
+     */
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get several tasks by ID")
+    public ResponseEntity<TaskLookupResponseDTO> getTasksByIds(
+            @Parameter(description = "Comma-separated UUIDs of the tasks to retrieve") @RequestParam List<UUID> ids
+    ) throws BadRequestException {
+        return lookup(ids);
+    }
+
+    /**
+     * Get several tasks by their IDs, for id lists too long for a query string.
+     *
+     * @param lookupRequestDTO UUIDs of the tasks, at most {@value #MAX_LOOKUP_IDS}
+     * @return The found tasks in request order and the ids that were not found
+     * @throws BadRequestException If too many ids are requested
+     */
+    @PostMapping("/lookup")
+    @Operation(summary = "Get several tasks by ID")
+    public ResponseEntity<TaskLookupResponseDTO> lookupTasks(
+            @Valid @RequestBody TaskLookupRequestDTO lookupRequestDTO
+    ) throws BadRequestException {
+        return lookup(lookupRequestDTO.getIds());
+    }
+
     /**
      * Update an existing task.
      *
@@ -119,4 +239,21 @@ public class TaskController {
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<TaskLookupResponseDTO> lookup(List<UUID> ids) throws BadRequestException {
+        if (ids.isEmpty() || ids.size() > MAX_LOOKUP_IDS) {
+            throw new BadRequestException("Between 1 and " + MAX_LOOKUP_IDS + " ids must be requested");
+        }
+        // An empty element of ?ids=a,,b is bound as null
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Ids must not be empty");
+        }
+        return ResponseEntity.ok(TaskLookupResponseDTO.fromLookup(taskService.getTasksByIds(ids)));
+    }
+
+    static void checkIdempotencyKey(String idempotencyKey) throws BadRequestException {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.kiosite.kiositetest.controller;
+
+import com.kiosite.kiositetest.config.JpaStorage;
+import com.kiosite.kiositetest.controller.dto.ImportJobResponseDTO;
+import com.kiosite.kiositetest.entity.ImportFormat;
+import com.kiosite.kiositetest.entity.ImportStatus;
+import com.kiosite.kiositetest.service.TaskImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controller for bulk importing tasks from CSV or NDJSON.
+ */
+@RestController
+@RequestMapping("/tasks/import")
+@RequiredArgsConstructor
+@Tag(name = "Task import", description = "Bulk import of tasks")
+@JpaStorage
+public class TaskImportController {
+
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final TaskImportService taskImportService;
+
+    /**
+     * Stream tasks from the request body into the database.
+     * <p>
+     * The format is taken from the {@code format} parameter, or else from the content type
+     * ({@code text/csv} or {@code application/x-ndjson}). Posting the same input again with
+     * the {@code jobId} of a failed import resumes it after its last committed chunk.
+     * <p>
+     * Instead of a {@code jobId}, clients can send an {@code Idempotency-Key}: the job id is
+     * then derived from the caller and the key, so a retry resumes the same job, and a retry
+     * of a completed import returns the job without importing anything again.
+     *
+     * @param jobId          Optional id of the job, used to follow its progress or resume it
+     * @param idempotencyKey Optional key standing for the job id
+     * @param principal      Authenticated user
+     * @param format         Optional input format, overriding the content type
+     * @param contentType    Content type of the request body
+     * @param body           Request body
+     * @return The job with a sample of rejected rows; 500 if the import failed
+     * @throws BadRequestException If the input format cannot be determined, or both a job id
+     *                             and an idempotency key are given
+     */
+    @PostMapping
+    @Operation(summary = "Import tasks from a CSV or NDJSON stream")
+    public ResponseEntity<ImportJobResponseDTO> importTasks(
+            @Parameter(description = "Optional job id; resumes the job if it did not complete")
+            @RequestParam(required = false) UUID jobId,
+            @Parameter(description = "Optional key making retries of this request safe")
+            @RequestHeader(name = TaskController.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            Principal principal,
+            @Parameter(description = "Input format (CSV, NDJSON), defaults to the content type")
+            @RequestParam(required = false) ImportFormat format,
+            @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body
+    ) throws BadRequestException {
+        if (idempotencyKey != null) {
+            if (jobId != null) {
+                throw new BadRequestException("Send either a jobId or an Idempotency-Key, not both");
+            }
+            TaskController.checkIdempotencyKey(idempotencyKey);
+            jobId = UUID.nameUUIDFromBytes((principal.getName() + "\n" + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        }
+        TaskImportService.Result result = taskImportService.importTasks(jobId, resolveFormat(format, contentType), body);
+        HttpStatus status = result.job().getStatus() == ImportStatus.COMPLETED ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(ImportJobResponseDTO.fromEntity(result.job(), result.rejections()));
+    }
+
+    /**
+     * Get the progress of an import job.
+     *
+     * @param jobId Import job UUID
+     * @return The job
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get the progress of an import job")
+    public ResponseEntity<ImportJobResponseDTO> getJob(
+            @Parameter(description = "UUID of the import job") @PathVariable UUID jobId
+    ) {
+        return ResponseEntity.ok(ImportJobResponseDTO.fromEntity(taskImportService.getJob(jobId), List.of()));
+    }
+
+    private static ImportFormat resolveFormat(ImportFormat format, String contentType) throws BadRequestException {
+        if (format != null) {
+            return format;
+        }
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (TEXT_CSV.isCompatibleWith(mediaType)) {
+                return ImportFormat.CSV;
+            }
+            if (APPLICATION_NDJSON.isCompatibleWith(mediaType)) {
+                return ImportFormat.NDJSON;
+            }
+        }
+        throw new BadRequestException("Send text/csv or application/x-ndjson, or set the format parameter");
+    }
+}
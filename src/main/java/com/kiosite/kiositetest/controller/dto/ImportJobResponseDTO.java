@@ -0,0 +1,42 @@
+package com.kiosite.kiositetest.controller.dto;
+
+import com.kiosite.kiositetest.entity.ImportFormat;
+import com.kiosite.kiositetest.entity.ImportJob;
+import com.kiosite.kiositetest.entity.ImportStatus;
+import com.kiosite.kiositetest.service.TaskImportService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponseDTO {
+    private UUID id;
+    private ImportFormat format;
+    private ImportStatus status;
+    private long rowsCommitted;
+    private long imported;
+    private long rejected;
+    private String lastError;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<TaskImportService.Rejection> rejections;
+
+    /**
+     * Given an ImportJob transform to ImportJobResponseDTO
+     * @param job
+     * @param rejections Rejected rows to report, empty when only the progress is requested
+     * @return
+     */
+    public static ImportJobResponseDTO fromEntity(ImportJob job, List<TaskImportService.Rejection> rejections) {
+        return new ImportJobResponseDTO(job.getId(), job.getFormat(), job.getStatus(), job.getRowsCommitted(),
+                job.getImported(), job.getRejected(), job.getLastError(), job.getCreatedBy(), job.getCreatedAt(),
+                job.getUpdatedAt(), rejections);
+    }
+}
@@ -0,0 +1,29 @@
+package com.kiosite.kiositetest.controller.dto;
+
+import com.kiosite.kiositetest.service.TaskChangeService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangesResponseDTO {
+    private List<TaskResponseDTO> tasks;
+    private List<UUID> deleted;
+    private String cursor;
+    private boolean hasMore;
+
+    /**
+     * Given a TaskChangeService.Changes transform to TaskChangesResponseDTO
+     * @param changes
+     * @return
+     */
+    public static TaskChangesResponseDTO fromChanges(TaskChangeService.Changes changes) {
+        return new TaskChangesResponseDTO(changes.tasks().stream().map(TaskResponseDTO::fromEntity).toList(),
+                changes.deleted(), changes.next().encode(), changes.hasMore());
+    }
+}
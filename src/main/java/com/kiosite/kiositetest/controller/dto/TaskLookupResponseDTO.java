@@ -0,0 +1,26 @@
+package com.kiosite.kiositetest.controller.dto;
+
+import com.kiosite.kiositetest.service.TaskService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskLookupResponseDTO {
+    private List<TaskResponseDTO> tasks;
+    private List<UUID> missing;
+
+    /**
+     * Given a TaskService.Lookup transform to TaskLookupResponseDTO
+     * @param lookup
+     * @return
+     */
+    public static TaskLookupResponseDTO fromLookup(TaskService.Lookup lookup) {
+        return new TaskLookupResponseDTO(lookup.tasks().stream().map(TaskResponseDTO::fromEntity).toList(), lookup.missing());
+    }
+}
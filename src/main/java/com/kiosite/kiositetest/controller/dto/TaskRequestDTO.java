@@ -1,10 +1,22 @@
 package com.kiosite.kiositetest.controller.dto;
 
 import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
+/**
+ * Data of a task to create, or to replace the data of an existing task with.
+ * <p>
+ * Creating and updating treat omitted fields alike: no description, no due date and
+ * {@link Task#DEFAULT_PRIORITY}. An omitted status means {@link Status#PENDING} on creation
+ * and keeps the current status on update.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,7 +27,14 @@ public class TaskRequestDTO {
     @Size(max = 100, message = "Title must be less than 100 characters")
     private String title;
 
+    @Size(max = 255, message = "Description must be less than 255 characters")
     private String description;
 
     private Status status; // PENDING, IN_PROGRESS, DONE
+
+    @Min(value = Task.HIGHEST_PRIORITY, message = "Priority must be between 1 and 5")
+    @Max(value = Task.LOWEST_PRIORITY, message = "Priority must be between 1 and 5")
+    private Integer priority; // 1 (most urgent) to 5, defaults to 3
+
+    private LocalDateTime dueAt;
 }
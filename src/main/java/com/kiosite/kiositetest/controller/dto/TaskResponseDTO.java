@@ -1,5 +1,6 @@
 package com.kiosite.kiositetest.controller.dto;
 
+import com.kiosite.kiositetest.entity.ArchivedTask;
 import com.kiosite.kiositetest.entity.Status;
 import com.kiosite.kiositetest.entity.Task;
 import jakarta.persistence.Column;
@@ -12,14 +13,18 @@ import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TaskResponseDTO {
+    private UUID id;
     private String title;
     private String description;
     private Status status;
+    private Integer priority;
+    private LocalDateTime dueAt;
     private String createdBy;
     private LocalDateTime createdAt;
     private String modifiedBy;
@@ -32,6 +37,15 @@ public class TaskResponseDTO {
      * @return
      */
     public static TaskResponseDTO fromEntity(Task task) {
-        return new TaskResponseDTO(task.getTitle(), task.getDescription(), task.getStatus(), task.getCreatedBy(), task.getCreatedAt(), task.getModifiedBy(), task.getUpdatedAt());
+        return new TaskResponseDTO(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(), task.getDueAt(), task.getCreatedBy(), task.getCreatedAt(), task.getModifiedBy(), task.getUpdatedAt());
+    }
+
+    /**
+     * Given an ArchivedTask transform to TaskResponseDTO
+     * @param task
+     * @return
+     */
+    public static TaskResponseDTO fromEntity(ArchivedTask task) {
+        return new TaskResponseDTO(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(), task.getDueAt(), task.getCreatedBy(), task.getCreatedAt(), task.getModifiedBy(), task.getUpdatedAt());
     }
 }
\ No newline at end of file
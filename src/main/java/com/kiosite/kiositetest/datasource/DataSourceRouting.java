@@ -0,0 +1,56 @@
+package com.kiosite.kiositetest.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets callers pin read-only work to the primary database when a replica is configured.
+ * <p>
+ * Read-only transactions normally go to the replica, which may lag behind. Work whose
+ * result must include every committed write, such as rebuilding in-memory indexes, runs
+ * inside {@link #onPrimary}. Without a replica this has no effect.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * Runs the given action with all connections it opens routed to the primary.
+     *
+     * @param action Action to run
+     * @param <T>    Result type
+     * @return The result of the action
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs the given action with all connections it opens routed to the primary.
+     *
+     * @param action Action to run
+     */
+    public static void onPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return {@code true} if the current thread is inside {@link #onPrimary}
+     */
+    static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+}
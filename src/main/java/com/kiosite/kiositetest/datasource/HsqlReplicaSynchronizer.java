@@ -0,0 +1,187 @@
+package com.kiosite.kiositetest.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a second HSQLDB database in sync with the primary, standing in for database
+ * replication when running locally.
+ * <p>
+ * Each run copies the whole {@code PUBLIC} schema: the table and index definitions taken
+ * from the primary's {@code SCRIPT} output, recreated when they change, and then every row,
+ * replaced in a single replica transaction so readers see either the old or the new
+ * snapshot. Runs are skipped while nothing was written since the last one. The copy is
+ * linear in the size of the database and blocks writers on the primary while it reads, so
+ * this is only meant for development and tests.
+ */
+@Slf4j
+public class HsqlReplicaSynchronizer {
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagGuard lagGuard;
+    private final LongSupplier nanoClock;
+    private List<String> appliedSchema = List.of();
+    private long lastSync = Long.MIN_VALUE;
+
+    public HsqlReplicaSynchronizer(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+        this(primary, replica, lagGuard, System::nanoTime);
+    }
+
+    HsqlReplicaSynchronizer(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard, LongSupplier nanoClock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagGuard = lagGuard;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Copies the primary to the replica if anything was written since the last run, then
+     * reports the replication position to the {@link ReplicaLagGuard}.
+     */
+    @Scheduled(fixedDelayString = "${tasks.datasource.replica.local-sync.interval:PT1S}")
+    public synchronized void sync() {
+        long start = nanoClock.getAsLong();
+        try {
+            long lastWrite = lagGuard.lastWrite();
+            if (lastSync == Long.MIN_VALUE || (lastWrite != Long.MIN_VALUE && lastWrite - lastSync >= 0)) {
+                copy();
+            }
+            lastSync = start;
+            lagGuard.replicatedUpTo(start);
+        } catch (SQLException ex) {
+            log.warn("Could not synchronize the replica database", ex);
+        }
+    }
+
+    private void copy() throws SQLException {
+        try (Connection source = primary.getConnection(); Connection target = replica.getConnection()) {
+            ConnectionState sourceState = ConnectionState.of(source);
+            ConnectionState targetState = ConnectionState.of(target);
+            // SCRIPT is rejected inside a read-only transaction
+            List<String> schema = schema(source);
+            source.setReadOnly(true);
+            source.setAutoCommit(false);
+            source.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            target.setReadOnly(false);
+            target.setAutoCommit(false);
+            try {
+                if (!schema.equals(appliedSchema)) {
+                    recreateSchema(target, schema);
+                }
+                for (String table : tables(source)) {
+                    copyTable(source, target, table);
+                }
+                target.commit();
+                source.commit();
+            } catch (SQLException | RuntimeException ex) {
+                target.rollback();
+                source.rollback();
+                throw ex;
+            } finally {
+                sourceState.restore(source);
+                targetState.restore(target);
+            }
+        }
+    }
+
+    private List<String> schema(Connection source) throws SQLException {
+        List<String> statements = new ArrayList<>();
+        try (Statement statement = source.createStatement(); ResultSet rs = statement.executeQuery("SCRIPT")) {
+            while (rs.next()) {
+                String sql = rs.getString(1);
+                String upper = sql.toUpperCase(Locale.ROOT);
+                if (upper.startsWith("CREATE MEMORY TABLE PUBLIC.") || upper.startsWith("CREATE CACHED TABLE PUBLIC.")
+                        || upper.startsWith("CREATE INDEX ") || upper.startsWith("ALTER TABLE PUBLIC.")) {
+                    statements.add(sql);
+                }
+            }
+        }
+        return statements;
+    }
+
+    private void recreateSchema(Connection target, List<String> schema) throws SQLException {
+        try (Statement statement = target.createStatement()) {
+            statement.execute("DROP SCHEMA PUBLIC CASCADE");
+            statement.execute("SET DATABASE REFERENTIAL INTEGRITY FALSE");
+            for (String sql : schema) {
+                statement.execute(sql);
+            }
+        }
+        appliedSchema = schema;
+        log.info("Replica schema recreated with {} statements", schema.size());
+    }
+
+    private List<String> tables(Connection source) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        DatabaseMetaData metaData = source.getMetaData();
+        try (ResultSet rs = metaData.getTables(null, "PUBLIC", "%", new String[]{"TABLE"})) {
+            while (rs.next()) {
+                tables.add(rs.getString("TABLE_NAME"));
+            }
+        }
+        return tables;
+    }
+
+    private void copyTable(Connection source, Connection target, String table) throws SQLException {
+        String name = "PUBLIC.\"" + table + "\"";
+        try (Statement delete = target.createStatement()) {
+            delete.execute("DELETE FROM " + name);
+        }
+        try (Statement select = source.createStatement(); ResultSet rs = select.executeQuery("SELECT * FROM " + name)) {
+            int columns = rs.getMetaData().getColumnCount();
+            StringJoiner placeholders = new StringJoiner(",", "(", ")");
+            for (int i = 0; i < columns; i++) {
+                placeholders.add("?");
+            }
+            try (PreparedStatement insert = target.prepareStatement("INSERT INTO " + name + " VALUES " + placeholders)) {
+                int pending = 0;
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        insert.setObject(i, rs.getObject(i));
+                    }
+                    insert.addBatch();
+                    if (++pending == INSERT_BATCH_SIZE) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * Connection settings changed for the copy, put back before the connection is returned.
+     */
+    private record ConnectionState(boolean readOnly, boolean autoCommit, int isolation) {
+
+        static ConnectionState of(Connection connection) throws SQLException {
+            return new ConnectionState(connection.isReadOnly(), connection.getAutoCommit(),
+                    connection.getTransactionIsolation());
+        }
+
+        void restore(Connection connection) throws SQLException {
+            connection.setAutoCommit(autoCommit);
+            connection.setTransactionIsolation(isolation);
+            connection.setReadOnly(readOnly);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.kiosite.kiositetest.datasource;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the
+ * primary.
+ * <p>
+ * The routing decision is made when a connection is fetched, so this data source must be
+ * wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * transaction managers fetch the connection before the read-only flag of the transaction
+ * is exposed. Read-only transactions still go to the primary inside
+ * {@link DataSourceRouting#onPrimary} and while the {@link ReplicaLagGuard} reports that
+ * the replica may miss the current client's own writes. Commits of read-write transactions
+ * are recorded with the guard.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {PRIMARY, REPLICA}
+
+    private final ReplicaLagGuard lagGuard;
+    private final AuditorAware<String> clientResolver;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                        ReplicaLagGuard lagGuard, AuditorAware<String> clientResolver) {
+        this.lagGuard = lagGuard;
+        this.clientResolver = clientResolver;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        String client = clientResolver.getCurrentAuditor().orElse(null);
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lagGuard.recordWrite(client);
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        if (DataSourceRouting.isPrimaryRequired() || lagGuard.requiresPrimary(client)) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
@@ -0,0 +1,97 @@
+package com.kiosite.kiositetest.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks when each client last wrote, so that its reads are sent to the primary until the
+ * replica has caught up with its own writes.
+ * <p>
+ * When the replication position is reported through {@link #replicatedUpTo}, a client reads
+ * from the primary until a replica snapshot taken after its last write is applied. Otherwise
+ * the replica is assumed to lag by at most {@code maxLag}, and a client reads from the
+ * primary for that long after each write. Writes by other clients are not tracked; they
+ * become visible once replicated.
+ */
+public class ReplicaLagGuard {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Duration maxLag;
+    private final boolean positionReported;
+    private final LongSupplier nanoClock;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile long lastWrite = Long.MIN_VALUE;
+    private volatile long replicatedUpTo = Long.MIN_VALUE;
+
+    /**
+     * @param maxLag           Longest expected replication lag
+     * @param positionReported Whether {@link #replicatedUpTo} will be called; until it is,
+     *                         every read goes to the primary
+     */
+    public ReplicaLagGuard(Duration maxLag, boolean positionReported) {
+        this(maxLag, positionReported, System::nanoTime);
+    }
+
+    ReplicaLagGuard(Duration maxLag, boolean positionReported, LongSupplier nanoClock) {
+        this.maxLag = maxLag;
+        this.positionReported = positionReported;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Records a committed write.
+     *
+     * @param client Name of the client that wrote, or {@code null} if unknown
+     */
+    public void recordWrite(String client) {
+        long now = nanoClock.getAsLong();
+        lastWrite = now;
+        if (client == null) {
+            return;
+        }
+        lastWrites.put(client, now);
+        if (lastWrites.size() > PURGE_THRESHOLD && !awaitingFirstPosition()) {
+            long horizon = horizon(now);
+            lastWrites.values().removeIf(time -> time - horizon < 0);
+        }
+    }
+
+    /**
+     * Records that the replica contains every write committed before the given time.
+     *
+     * @param nanoTime {@link System#nanoTime()} taken before the replica snapshot was read
+     */
+    public void replicatedUpTo(long nanoTime) {
+        replicatedUpTo = nanoTime;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} of the last recorded write, or {@link Long#MIN_VALUE}
+     */
+    public long lastWrite() {
+        return lastWrite;
+    }
+
+    /**
+     * @param client Name of the reading client, or {@code null} if unknown
+     * @return {@code true} if the replica may not yet contain the client's own writes
+     */
+    public boolean requiresPrimary(String client) {
+        if (awaitingFirstPosition()) {
+            return true;
+        }
+        Long written = client != null ? lastWrites.get(client) : null;
+        return written != null && written - horizon(nanoClock.getAsLong()) >= 0;
+    }
+
+    private boolean awaitingFirstPosition() {
+        return positionReported && replicatedUpTo == Long.MIN_VALUE;
+    }
+
+    private long horizon(long now) {
+        return positionReported ? replicatedUpTo : now - maxLag.toNanos();
+    }
+}
@@ -0,0 +1,70 @@
+package com.kiosite.kiositetest.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Completed task moved out of the {@link Task} table by the archiving sweeper.
+ * <p>
+ * Audit columns are copied from the original task instead of being managed by auditing,
+ * and rows are only ever inserted.
+ */
+@Entity
+@Table(name = "archived_task")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedTask implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private Integer priority;
+
+    private LocalDateTime dueAt;
+
+    private String createdBy;
+
+    private LocalDateTime createdAt;
+
+    private String modifiedBy;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Archived rows are never updated, so saving always inserts without selecting the row first.
+     */
+    @Override
+    @Transient
+    public boolean isNew() {
+        return true;
+    }
+
+    /**
+     * Copies a task into its archived form.
+     *
+     * @param task       Task to archive
+     * @param archivedAt Archiving date
+     * @return The archived copy of the task
+     */
+    public static ArchivedTask fromTask(Task task, LocalDateTime archivedAt) {
+        return new ArchivedTask(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getPriority(), task.getDueAt(), task.getCreatedBy(), task.getCreatedAt(), task.getModifiedBy(), task.getUpdatedAt(), archivedAt);
+    }
+}
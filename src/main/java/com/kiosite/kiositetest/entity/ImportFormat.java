@@ -0,0 +1,15 @@
+package com.kiosite.kiositetest.entity;
+
+/**
+ * Source formats accepted by the bulk task import.
+ */
+public enum ImportFormat {
+    /**
+     * Comma-separated values with a header row naming the title, description and status columns.
+     */
+    CSV,
+    /**
+     * One JSON task object per line.
+     */
+    NDJSON
+}
@@ -0,0 +1,50 @@
+package com.kiosite.kiositetest.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Progress of a bulk task import.
+ * <p>
+ * Updated in the same transaction as each chunk of imported tasks, so {@link #rowsCommitted}
+ * is always the number of source rows whose tasks are in the database. A failed or
+ * interrupted import is resumed by skipping that many rows of the same input.
+ */
+@Entity
+@Table(name = "import_job")
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJob extends BaseEntity {
+
+    @Id
+    private UUID id;
+
+    /**
+     * Also tells new jobs, whose id is assigned by the caller, apart from existing ones.
+     */
+    @Version
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ImportStatus status;
+
+    private long rowsCommitted;
+
+    private long imported;
+
+    private long rejected;
+
+    @Column(length = 1000)
+    private String lastError;
+
+}
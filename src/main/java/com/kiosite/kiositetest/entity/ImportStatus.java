@@ -0,0 +1,10 @@
+package com.kiosite.kiositetest.entity;
+
+/**
+ * Lifecycle of an {@link ImportJob}.
+ */
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,5 +1,6 @@
 package com.kiosite.kiositetest.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -9,12 +10,21 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_status_updated_at", columnList = "status, updatedAt"),
+        @Index(name = "idx_task_updated_at", columnList = "updatedAt, id"),
+        @Index(name = "idx_task_next", columnList = "status, priority, undated, dueAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Task extends BaseEntity{
 
+    public static final int HIGHEST_PRIORITY = 1;
+    public static final int LOWEST_PRIORITY = 5;
+    public static final int DEFAULT_PRIORITY = 3;
+
     @Id
     @GeneratedValue
     private UUID id;
@@ -27,4 +37,30 @@ public class Task extends BaseEntity{
     @Enumerated(EnumType.STRING)
     private Status status = Status.PENDING;
 
+    /**
+     * From {@link #HIGHEST_PRIORITY} (most urgent) to {@link #LOWEST_PRIORITY}.
+     */
+    @Column(nullable = false)
+    private Integer priority;
+
+    private LocalDateTime dueAt;
+
+    /**
+     * Whether {@link #dueAt} is unset. HSQLDB indexes always sort nulls first, so this column
+     * lets {@code idx_task_next} list tasks without a due date after the dated ones.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Column(nullable = false)
+    private boolean undated;
+
+    @PrePersist
+    @PreUpdate
+    void updateUndated() {
+        undated = dueAt == null;
+    }
+
 }
@@ -0,0 +1,41 @@
+package com.kiosite.kiositetest.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Record of a task removed from the {@link Task} table, by deletion or archiving, kept so
+ * that the changes feed can tell clients to drop it.
+ * <p>
+ * Tombstones are inserted once and purged after the retention window.
+ */
+@Entity
+@Table(name = "task_tombstone", indexes = @Index(name = "idx_task_tombstone_deleted_at", columnList = "deletedAt, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskTombstone implements Persistable<UUID> {
+
+    /**
+     * Id of the removed task.
+     */
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    /**
+     * Tombstones are never updated, so saving always inserts without selecting the row first.
+     */
+    @Override
+    @Transient
+    public boolean isNew() {
+        return true;
+    }
+}
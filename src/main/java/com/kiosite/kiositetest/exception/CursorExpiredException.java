@@ -0,0 +1,15 @@
+package com.kiosite.kiositetest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a changes cursor is older than the tombstone retention window, so the client
+ * has to sync all tasks again.
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class CursorExpiredException extends RuntimeException {
+    public CursorExpiredException(String message) {
+        super(message, null, false, false);
+    }
+}
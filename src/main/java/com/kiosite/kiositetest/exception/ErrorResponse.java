@@ -0,0 +1,29 @@
+package com.kiosite.kiositetest.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Error body returned by {@link GlobalExceptionHandler}.
+ *
+ * @param timestamp When the error was produced
+ * @param status    HTTP status code
+ * @param error     HTTP status description
+ * @param message   Error detail
+ * @param path      Request path
+ */
+public record ErrorResponse(LocalDateTime timestamp, int status, String error, String message, String path) {
+
+    /**
+     * Creates an error body for the given status, using its reason phrase as error description.
+     *
+     * @param status  HTTP status of the response
+     * @param message Error detail
+     * @param path    Request path
+     * @return The error body
+     */
+    public static ErrorResponse of(HttpStatus status, String message, String path) {
+        return new ErrorResponse(LocalDateTime.now(), status.value(), status.getReasonPhrase(), message, path);
+    }
+}
@@ -2,6 +2,7 @@ package com.kiosite.kiositetest.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.coyote.BadRequestException;
+import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -33,14 +34,10 @@ public class GlobalExceptionHandler {
      * @return ResponseEntity with error details
      */
     @ExceptionHandler(NotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleNotFound(NotFoundException ex, HttpServletRequest request) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.NOT_FOUND.value());
-        body.put("error", "Not Found");
-        body.put("message", ex.getMessage());
-        body.put("path", request.getRequestURI());
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+    public ResponseEntity<ErrorResponse> handleNotFound(NotFoundException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.NOT_FOUND);
     }
 
     /**
@@ -51,14 +48,10 @@ public class GlobalExceptionHandler {
      * @return ResponseEntity with error details
      */
     @ExceptionHandler(InvalidStatusException.class)
-    public ResponseEntity<Map<String, Object>> handleInvalidStatus(InvalidStatusException ex, HttpServletRequest request) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("error", "Bad Request");
-        body.put("message", ex.getMessage());
-        body.put("path", request.getRequestURI());
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    public ResponseEntity<ErrorResponse> handleInvalidStatus(InvalidStatusException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -69,14 +62,110 @@ public class GlobalExceptionHandler {
      * @return ResponseEntity with error details
      */
     @ExceptionHandler(BadRequestException.class)
-    public ResponseEntity<Map<String, Object>> handleBadRequest(BadRequestException ex, HttpServletRequest request) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        body.put("error", "Bad Request");
-        body.put("message", ex.getMessage());
-        body.put("path", request.getRequestURI());
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    public ResponseEntity<ErrorResponse> handleBadRequest(BadRequestException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles IdempotencyKeyReuseException and returns a 422 Unprocessable Entity response.
+     *
+     * @param ex      The IdempotencyKeyReuseException thrown
+     * @param request HttpServletRequest to get the request path
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles IdempotencyKeyInProgressException and returns a 409 Conflict response.
+     *
+     * @param ex      The IdempotencyKeyInProgressException thrown
+     * @param request HttpServletRequest to get the request path
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles ImportInProgressException and returns a 409 Conflict response.
+     *
+     * @param ex      The ImportInProgressException thrown
+     * @param request HttpServletRequest to get the request path
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(ImportInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleImportInProgress(ImportInProgressException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles CursorExpiredException and returns a 410 Gone response.
+     *
+     * @param ex      The CursorExpiredException thrown
+     * @param request HttpServletRequest to get the request path
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(CursorExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleCursorExpired(CursorExpiredException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.GONE, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.GONE);
+    }
+
+    /**
+     * Handles InvalidCursorException and returns a 400 Bad Request response.
+     *
+     * @param ex      The InvalidCursorException thrown
+     * @param request HttpServletRequest to get the request path
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles ImportFormatMismatchException and returns a 400 Bad Request response.
+     *
+     * @param ex      The ImportFormatMismatchException thrown
+     * @param request HttpServletRequest to get the request path
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(ImportFormatMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleImportFormatMismatch(ImportFormatMismatchException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles unknown sort properties, reported by the off-heap and sharded engines as
+     * InvalidSortException and by Spring Data JPA as PropertyReferenceException, and returns
+     * a 400 Bad Request response.
+     *
+     * @param ex      The exception thrown
+     * @param request HttpServletRequest to get the request path
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler({InvalidSortException.class, PropertyReferenceException.class})
+    public ResponseEntity<ErrorResponse> handleInvalidSort(RuntimeException ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -87,14 +176,10 @@ public class GlobalExceptionHandler {
      * @return ResponseEntity with error details
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGeneral(Exception ex, HttpServletRequest request) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        body.put("error", "Internal Server Error");
-        body.put("message", ex.getMessage());
-        body.put("path", request.getRequestURI());
-        return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<ErrorResponse> handleGeneral(Exception ex, HttpServletRequest request) {
+        return new ResponseEntity<>(
+                ErrorResponse.of(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), request.getRequestURI()),
+                HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     /**
@@ -0,0 +1,14 @@
+package com.kiosite.kiositetest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a retry gives up waiting for the first request with the same idempotency key.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,14 @@
+package com.kiosite.kiositetest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an import job is resumed with input of another format than it was started with.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ImportFormatMismatchException extends RuntimeException {
+    public ImportFormatMismatchException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,14 @@
+package com.kiosite.kiositetest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an import job is started while it is already running.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ImportInProgressException extends RuntimeException {
+    public ImportInProgressException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,12 +1,14 @@
 package com.kiosite.kiositetest.exception;
 
-import org.apache.coyote.BadRequestException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Thrown when a task status transition breaks a business rule.
+ */
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class InvalidStatusException extends BadRequestException {
+public class InvalidStatusException extends RuntimeException {
     public InvalidStatusException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
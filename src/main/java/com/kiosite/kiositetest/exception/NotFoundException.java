@@ -3,11 +3,14 @@ package com.kiosite.kiositetest.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
-import java.util.UUID;
-
+/**
+ * Thrown when a requested resource does not exist.
+ * <p>
+ * Not-found lookups are a normal, frequent outcome, so the exception does not capture a stack trace.
+ */
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class NotFoundException extends RuntimeException {
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,16 @@
+package com.kiosite.kiositetest.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the statements Hibernate prepares into the current {@link SqlStatementStats}.
+ * The SQL is passed through unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats.statementPrepared(sql);
+        return sql;
+    }
+}
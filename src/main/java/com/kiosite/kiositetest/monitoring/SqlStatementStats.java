@@ -0,0 +1,88 @@
+package com.kiosite.kiositetest.monitoring;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL statements issued through Hibernate on the current thread while recording, and the
+ * time spent executing them over JDBC.
+ * <p>
+ * Statements are counted by {@link SqlStatementInspector} when Hibernate prepares them, so a
+ * JDBC batch counts once; execution time is measured by {@link SqlTimingSessionListener}.
+ * Nothing is recorded on threads that have not called {@link #start()}, such as background
+ * jobs or the import pipeline's worker threads.
+ * <pre>{@code
+ * try (SqlStatementStats stats = SqlStatementStats.start()) {
+ *     taskService.deleteTask(id);
+ *     log.debug("{} statements", stats.statementCount());
+ * }
+ * }</pre>
+ */
+public final class SqlStatementStats implements AutoCloseable {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final List<String> statements = new ArrayList<>();
+    private long jdbcNanos;
+
+    private SqlStatementStats() {
+    }
+
+    /**
+     * Starts recording on the current thread, replacing any recording already in progress.
+     *
+     * @return The new recording; close it to stop
+     */
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stops recording on the current thread. The counts stay readable.
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return Number of statements prepared while recording
+     */
+    public int statementCount() {
+        return statements.size();
+    }
+
+    /**
+     * @return SQL of the statements prepared while recording, in order
+     */
+    public List<String> statements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * @return Time spent executing statements and batches over JDBC
+     */
+    public Duration jdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    static void statementPrepared(String sql) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements.add(sql);
+        }
+    }
+
+    static void jdbcExecuted(long nanos) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.jdbcNanos += nanos;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.kiosite.kiositetest.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Records the {@link SqlStatementStats} of each request and reports them in the
+ * {@value #STATEMENTS_HEADER} and {@value #SERVER_TIMING_HEADER} response headers, and as
+ * the {@code tasks.http.sql.statements} and {@code tasks.http.sql.time} metrics tagged by
+ * method and URI pattern.
+ * <p>
+ * The response body is buffered so that the headers can be added after the handler ran;
+ * this is a debugging aid, enabled with {@code tasks.sql-stats.enabled}.
+ */
+public class SqlStatementStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    /**
+     * Request attribute holding the {@link SqlStatementStats} of the request.
+     */
+    public static final String STATS_ATTRIBUTE = SqlStatementStats.class.getName();
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementStatsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            stats.close();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+            wrapper.setHeader(STATEMENTS_HEADER, Integer.toString(stats.statementCount()));
+            wrapper.addHeader(SERVER_TIMING_HEADER, String.format(Locale.ROOT, "sql;dur=%.3f",
+                    stats.jdbcTime().toNanos() / 1e6));
+            record(request, stats);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("tasks.http.sql.statements")
+                .description("SQL statements per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.statementCount());
+        Timer.builder("tasks.http.sql.time")
+                .description("JDBC execution time per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.jdbcTime());
+    }
+}
@@ -0,0 +1,33 @@
+package com.kiosite.kiositetest.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time each JDBC statement or batch takes to execute to the current
+ * {@link SqlStatementStats}. Hibernate creates one listener per session.
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementStats.jdbcExecuted(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementStats.jdbcExecuted(System.nanoTime() - batchStart);
+    }
+}
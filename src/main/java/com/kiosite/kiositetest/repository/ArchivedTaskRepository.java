@@ -0,0 +1,15 @@
+package com.kiosite.kiositetest.repository;
+
+import com.kiosite.kiositetest.entity.ArchivedTask;
+import com.kiosite.kiositetest.entity.Status;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, UUID> {
+    Page<ArchivedTask> findByStatus(Status status, Pageable pageable);
+}
@@ -0,0 +1,11 @@
+package com.kiosite.kiositetest.repository;
+
+import com.kiosite.kiositetest.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, UUID> {
+}
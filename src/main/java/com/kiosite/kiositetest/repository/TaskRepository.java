@@ -2,14 +2,57 @@ package com.kiosite.kiositetest.repository;
 
 import com.kiosite.kiositetest.entity.Status;
 import com.kiosite.kiositetest.entity.Task;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, UUID> {
     Page<Task> findByStatus(Status status, Pageable pageable);
+
+    @Query("select t.id from Task t")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<UUID> streamAllIds();
+
+    @Query("select t from Task t")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<Task> streamAll();
+
+    long countByStatus(Status status);
+
+    /**
+     * Most urgent tasks with the given status: by priority, then due date with undated tasks
+     * last. The ordering matches {@code idx_task_next}, so only {@code limit} index entries are read.
+     */
+    @Query("select t from Task t where t.status = :status order by t.status, t.priority, t.undated, t.dueAt, t.id")
+    List<Task> findNextByStatus(Status status, Limit limit);
+
+    /**
+     * Tasks created or updated after the position {@code (at, id)} and no later than
+     * {@code until}, in {@code (updatedAt, id)} order. The ordering matches
+     * {@code idx_task_updated_at}, so only {@code limit} index entries are read.
+     */
+    @Query("select t from Task t where t.updatedAt >= :at and (t.updatedAt > :at or t.id > :id)"
+            + " and t.updatedAt <= :until order by t.updatedAt, t.id")
+    List<Task> findChangedAfter(LocalDateTime at, UUID id, LocalDateTime until, Limit limit);
+
+    List<Task> findByStatusAndUpdatedAtBefore(Status status, LocalDateTime updatedBefore, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Task t where t.id in :ids and t.status = :status and t.updatedAt < :updatedBefore")
+    int deleteByIdInAndStatusAndUpdatedAtBefore(Collection<UUID> ids, Status status, LocalDateTime updatedBefore);
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.kiosite.kiositetest.repository;
+
+import com.kiosite.kiositetest.entity.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, UUID> {
+
+    /**
+     * Tombstones after the position {@code (at, id)} and no later than {@code until}, in
+     * {@code (deletedAt, id)} order. The ordering matches {@code idx_task_tombstone_deleted_at},
+     * so only {@code limit} index entries are read.
+     */
+    @Query("select t from TaskTombstone t where t.deletedAt >= :at and (t.deletedAt > :at or t.id > :id)"
+            + " and t.deletedAt <= :until order by t.deletedAt, t.id")
+    List<TaskTombstone> findDeletedAfter(LocalDateTime at, UUID id, LocalDateTime until, Limit limit);
+
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :deletedBefore")
+    int deleteByDeletedAtBefore(LocalDateTime deletedBefore);
+}
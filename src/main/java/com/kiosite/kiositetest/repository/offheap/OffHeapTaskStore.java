@@ -0,0 +1,840 @@
+package com.kiosite.kiositetest.repository.offheap;
+
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.InvalidSortException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Task storage engine keeping all data in direct memory, outside the Java heap.
+ * <p>
+ * Tasks are stored as fixed-width records in segmented direct buffers, in creation order.
+ * A record holds both halves of the UUID, the timestamps as epoch nanoseconds, the status
+ * and priority as bytes, and references into a {@link StringArena} for the text columns. Records are
+ * located through an open-addressing hash index with linear probing, itself held in a
+ * direct buffer, whose slots store record numbers.
+ * <p>
+ * Deleted records are only flagged, so that record order stays creation order. Their
+ * space, and the space of replaced strings, is only reclaimed when the store is rebuilt by
+ * {@link #restore(Path)} from a {@link #snapshot(Path)}, which carries live tasks only; in
+ * practice on restart. Until then a node taking many updates and deletes keeps growing,
+ * which {@link #reservedBytes()} shows.
+ * <p>
+ * Sorted scans compare the fields in place in the record buffers and keep record numbers
+ * in a bounded heap, so only the tasks returned are decoded into {@link Task} objects.
+ * <p>
+ * All operations are guarded by a read-write lock.
+ */
+public class OffHeapTaskStore implements AutoCloseable {
+
+    private static final int SNAPSHOT_MAGIC = 0x54534B53;
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private static final int MSB = 0;
+    private static final int LSB = 8;
+    private static final int CREATED_AT = 16;
+    private static final int UPDATED_AT = 24;
+    private static final int TITLE = 32;
+    private static final int DESCRIPTION = 40;
+    private static final int CREATED_BY = 48;
+    private static final int MODIFIED_BY = 56;
+    private static final int STATUS = 64;
+    private static final int FLAGS = 65;
+    private static final int PRIORITY = 66;
+    private static final int DUE_AT = 72;
+    private static final int RECORD_SIZE = 80;
+
+    private static final int SEGMENT_SHIFT = 18;
+    private static final int RECORDS_PER_SEGMENT = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = RECORDS_PER_SEGMENT - 1;
+
+    private static final byte LIVE = 1;
+    private static final byte DELETED = 0;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int MAX_INDEX_CAPACITY = 1 << 28;
+    private static final Status[] STATUSES = Status.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long[] statusCounts = new long[STATUSES.length];
+
+    private List<ByteBuffer> records = new ArrayList<>();
+    private StringArena strings = new StringArena();
+
+    private ByteBuffer index;
+    private int indexCapacity;
+    private int recordCount;
+    private int liveCount;
+
+    /**
+     * @param initialCapacity Number of tasks the index can hold before growing
+     */
+    public OffHeapTaskStore(int initialCapacity) {
+        this.indexCapacity = Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity * 2 - 1)) << 1);
+        this.index = allocateIndex(indexCapacity);
+    }
+
+    /**
+     * Stores a new task.
+     *
+     * @param task Task with its id and audit fields set
+     * @throws IllegalStateException if a task with the same id already exists
+     */
+    public void insert(Task task) {
+        lock.writeLock().lock();
+        try {
+            long msb = task.getId().getMostSignificantBits();
+            long lsb = task.getId().getLeastSignificantBits();
+            if (findRecord(msb, lsb) >= 0) {
+                throw new IllegalStateException("Task already exists: " + task.getId());
+            }
+            append(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the stored fields of an existing task.
+     *
+     * @param task Task with its new field values
+     * @return {@code false} if no task exists with that id
+     */
+    public boolean replace(Task task) {
+        lock.writeLock().lock();
+        try {
+            int record = findRecord(task.getId().getMostSignificantBits(), task.getId().getLeastSignificantBits());
+            if (record < 0) {
+                return false;
+            }
+            adjustStatusCount(record, -1);
+            releaseStrings(record);
+            writeFields(record, task);
+            adjustStatusCount(record, 1);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id Task UUID
+     * @return {@code false} if no task exists with that id
+     */
+    public boolean remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            int ref = index.getInt(slot << 2);
+            if (ref == 0) {
+                return false;
+            }
+            int record = ref - 1;
+            adjustStatusCount(record, -1);
+            releaseStrings(record);
+            segment(record).put(offset(record) + FLAGS, DELETED);
+            removeSlot(slot);
+            liveCount--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id Task UUID
+     * @return The task, or empty if it does not exist
+     */
+    public Optional<Task> get(UUID id) {
+        lock.readLock().lock();
+        try {
+            int record = findRecord(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return record < 0 ? Optional.empty() : Optional.of(read(record));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pages over the stored tasks, optionally filtered by status.
+     * <p>
+     * Unsorted pages and pages sorted by {@code createdAt} walk the records in storage
+     * order. Any other ordering scans all matching records while keeping only the first
+     * {@code offset + size} of them in a bounded heap.
+     *
+     * @param status   Optional status filter
+     * @param pageable Page request
+     * @return The page of tasks
+     * @throws InvalidSortException if the sort refers to an unknown property
+     */
+    public Page<Task> findAll(Status status, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            long total = status != null ? statusCounts[status.ordinal()] : liveCount;
+            List<Sort.Order> orders = pageable.getSort().toList();
+            if (orders.isEmpty() || (orders.size() == 1 && orders.get(0).getProperty().equals("createdAt"))) {
+                boolean ascending = orders.isEmpty() || orders.get(0).isAscending();
+                return new PageImpl<>(scanInOrder(status, pageable, ascending), pageable, total);
+            }
+            return new PageImpl<>(scanSorted(status, pageable, total, recordOrder(pageable.getSort())), pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists the tasks updated after the position {@code (after, afterId)} and no later than
+     * {@code until}, ordered by update time and then by id compared as unsigned bytes.
+     * <p>
+     * There is no index on the update time, so this scans all records, reading only the
+     * timestamp and id of each one and keeping the first {@code limit} in a bounded heap.
+     *
+     * @param after   Update time of the position to start after
+     * @param afterId Id of the position to start after
+     * @param until   Latest update time to include
+     * @param limit   Maximum number of tasks to return
+     * @return The tasks, in position order
+     */
+    public List<Task> findChangedAfter(LocalDateTime after, UUID afterId, LocalDateTime until, int limit) {
+        long afterNanos = toNanos(after);
+        long untilNanos = toNanos(until);
+        lock.readLock().lock();
+        try {
+            TopRecords top = new TopRecords(this::comparePositions, Math.min(limit, liveCount));
+            for (int record = 0; record < recordCount; record++) {
+                ByteBuffer segment = segment(record);
+                int base = offset(record);
+                long updated = segment.getLong(base + UPDATED_AT);
+                if (segment.get(base + FLAGS) != LIVE || updated == NULL_TIME || updated > untilNanos
+                        || comparePosition(updated, segment.getLong(base + MSB), segment.getLong(base + LSB),
+                        afterNanos, afterId.getMostSignificantBits(), afterId.getLeastSignificantBits()) <= 0) {
+                    continue;
+                }
+                top.offer(record);
+            }
+            int[] found = top.sorted();
+            List<Task> tasks = new ArrayList<>(found.length);
+            for (int record : found) {
+                tasks.add(read(record));
+            }
+            return tasks;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of stored tasks
+     */
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Bytes of direct memory reserved for records, strings and the index
+     */
+    public long reservedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) records.size() * RECORDS_PER_SEGMENT * RECORD_SIZE
+                    + strings.reservedBytes() + (long) indexCapacity * Integer.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes all live tasks to the given file.
+     * <p>
+     * The snapshot is written to a temporary file and moved into place, so a crash while
+     * writing never corrupts the previous snapshot. Writers are blocked while it is taken.
+     *
+     * @param file Snapshot file
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(liveCount);
+            for (int record = 0; record < recordCount; record++) {
+                ByteBuffer segment = segment(record);
+                int base = offset(record);
+                if (segment.get(base + FLAGS) != LIVE) {
+                    continue;
+                }
+                out.writeLong(segment.getLong(base + MSB));
+                out.writeLong(segment.getLong(base + LSB));
+                out.writeByte(segment.get(base + STATUS));
+                out.writeLong(segment.getLong(base + CREATED_AT));
+                out.writeLong(segment.getLong(base + UPDATED_AT));
+                out.writeByte(segment.get(base + PRIORITY));
+                out.writeLong(segment.getLong(base + DUE_AT));
+                writeString(out, strings.get(segment.getLong(base + TITLE)));
+                writeString(out, strings.get(segment.getLong(base + DESCRIPTION)));
+                writeString(out, strings.get(segment.getLong(base + CREATED_BY)));
+                writeString(out, strings.get(segment.getLong(base + MODIFIED_BY)));
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Replaces the contents of the store with the tasks of a snapshot.
+     * <p>
+     * The snapshot is loaded into new buffers, which replace the current ones only once it
+     * has been read completely: a truncated or corrupt snapshot leaves the store unchanged.
+     * Readers are not blocked while loading, but writes made meanwhile are discarded, so
+     * this is meant to be called at startup.
+     * <p>
+     * Snapshots from before priorities and due dates were stored load with the default
+     * priority and no due date.
+     *
+     * @param file Snapshot file written by {@link #snapshot(Path)}
+     * @throws IOException if the snapshot cannot be read or is not a valid snapshot
+     */
+    public void restore(Path file) throws IOException {
+        OffHeapTaskStore loaded = new OffHeapTaskStore(16);
+        try {
+            loaded.load(file);
+        } catch (IOException | RuntimeException ex) {
+            loaded.close();
+            throw ex;
+        }
+        lock.writeLock().lock();
+        try {
+            records = loaded.records;
+            strings = loaded.strings;
+            index = loaded.index;
+            indexCapacity = loaded.indexCapacity;
+            recordCount = loaded.recordCount;
+            liveCount = loaded.liveCount;
+            System.arraycopy(loaded.statusCounts, 0, statusCounts, 0, statusCounts.length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the tasks of a snapshot to this store, which is not shared yet.
+     */
+    private void load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a task store snapshot: " + file);
+            }
+            int version = in.readInt();
+            if (version < 1 || version > SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported task store snapshot version " + version + ": " + file);
+            }
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Invalid task count " + count + " in task store snapshot: " + file);
+            }
+            ensureIndexCapacity(count);
+            for (int i = 0; i < count; i++) {
+                Task task = Task.builder()
+                        .id(new UUID(in.readLong(), in.readLong()))
+                        .status(toStatus(in.readByte()))
+                        .build();
+                task.setCreatedAt(toDateTime(in.readLong()));
+                task.setUpdatedAt(toDateTime(in.readLong()));
+                if (version >= 2) {
+                    task.setPriority(toPriority(in.readByte()));
+                    task.setDueAt(toDateTime(in.readLong()));
+                } else {
+                    task.setPriority(Task.DEFAULT_PRIORITY);
+                }
+                task.setTitle(readString(in));
+                task.setDescription(readString(in));
+                task.setCreatedBy(readString(in));
+                task.setModifiedBy(readString(in));
+                append(task);
+            }
+        }
+    }
+
+    /**
+     * Releases all direct memory held by the store.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            indexCapacity = 16;
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        records.clear();
+        strings.clear();
+        Arrays.fill(statusCounts, 0);
+        recordCount = 0;
+        liveCount = 0;
+        index = allocateIndex(indexCapacity);
+    }
+
+    private void append(Task task) {
+        if (recordCount == Integer.MAX_VALUE - 1) {
+            throw new IllegalStateException("Task store is full");
+        }
+        ensureIndexCapacity(liveCount + 1);
+        int record = recordCount;
+        if ((record & SEGMENT_MASK) == 0 && (record >>> SEGMENT_SHIFT) == records.size()) {
+            records.add(ByteBuffer.allocateDirect(RECORDS_PER_SEGMENT * RECORD_SIZE).order(ByteOrder.nativeOrder()));
+        }
+        ByteBuffer segment = segment(record);
+        int base = offset(record);
+        segment.putLong(base + MSB, task.getId().getMostSignificantBits());
+        segment.putLong(base + LSB, task.getId().getLeastSignificantBits());
+        segment.put(base + FLAGS, LIVE);
+        writeFields(record, task);
+        adjustStatusCount(record, 1);
+
+        index.putInt(findSlot(task.getId().getMostSignificantBits(), task.getId().getLeastSignificantBits()) << 2, record + 1);
+        recordCount++;
+        liveCount++;
+    }
+
+    private void writeFields(int record, Task task) {
+        ByteBuffer segment = segment(record);
+        int base = offset(record);
+        segment.putLong(base + CREATED_AT, toNanos(task.getCreatedAt()));
+        segment.putLong(base + UPDATED_AT, toNanos(task.getUpdatedAt()));
+        segment.putLong(base + TITLE, strings.put(task.getTitle()));
+        segment.putLong(base + DESCRIPTION, strings.put(task.getDescription()));
+        segment.putLong(base + CREATED_BY, strings.put(task.getCreatedBy()));
+        segment.putLong(base + MODIFIED_BY, strings.put(task.getModifiedBy()));
+        segment.put(base + STATUS, task.getStatus() != null ? (byte) (task.getStatus().ordinal() + 1) : 0);
+        segment.put(base + PRIORITY, task.getPriority() != null ? task.getPriority().byteValue() : 0);
+        segment.putLong(base + DUE_AT, toNanos(task.getDueAt()));
+    }
+
+    private Task read(int record) {
+        ByteBuffer segment = segment(record);
+        int base = offset(record);
+        Task task = Task.builder()
+                .id(new UUID(segment.getLong(base + MSB), segment.getLong(base + LSB)))
+                .title(strings.get(segment.getLong(base + TITLE)))
+                .description(strings.get(segment.getLong(base + DESCRIPTION)))
+                .status(toStatus(segment.get(base + STATUS)))
+                .priority(toPriority(segment.get(base + PRIORITY)))
+                .dueAt(toDateTime(segment.getLong(base + DUE_AT)))
+                .build();
+        task.setCreatedBy(strings.get(segment.getLong(base + CREATED_BY)));
+        task.setCreatedAt(toDateTime(segment.getLong(base + CREATED_AT)));
+        task.setModifiedBy(strings.get(segment.getLong(base + MODIFIED_BY)));
+        task.setUpdatedAt(toDateTime(segment.getLong(base + UPDATED_AT)));
+        return task;
+    }
+
+    private void releaseStrings(int record) {
+        ByteBuffer segment = segment(record);
+        int base = offset(record);
+        strings.release(segment.getLong(base + TITLE));
+        strings.release(segment.getLong(base + DESCRIPTION));
+        strings.release(segment.getLong(base + CREATED_BY));
+        strings.release(segment.getLong(base + MODIFIED_BY));
+    }
+
+    private void adjustStatusCount(int record, int delta) {
+        byte status = segment(record).get(offset(record) + STATUS);
+        if (status != 0) {
+            statusCounts[status - 1] += delta;
+        }
+    }
+
+    private List<Task> scanInOrder(Status status, Pageable pageable, boolean ascending) {
+        byte wanted = status != null ? (byte) (status.ordinal() + 1) : 0;
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : liveCount;
+        List<Task> content = new ArrayList<>(Math.min(limit, liveCount));
+        for (int i = 0; i < recordCount && content.size() < limit; i++) {
+            int record = ascending ? i : recordCount - 1 - i;
+            if (matches(record, wanted) && skip-- <= 0) {
+                content.add(read(record));
+            }
+        }
+        return content;
+    }
+
+    private List<Task> scanSorted(Status status, Pageable pageable, long total, RecordOrder order) {
+        byte wanted = status != null ? (byte) (status.ordinal() + 1) : 0;
+        long keep = Math.min(total, pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : total);
+        if (pageable.isPaged() && pageable.getOffset() >= total) {
+            return List.of();
+        }
+        TopRecords top = new TopRecords(order, (int) keep);
+        for (int record = 0; record < recordCount; record++) {
+            if (matches(record, wanted)) {
+                top.offer(record);
+            }
+        }
+        int[] sorted = top.sorted();
+        int from = (int) Math.min(sorted.length, pageable.isPaged() ? pageable.getOffset() : 0);
+        List<Task> content = new ArrayList<>(sorted.length - from);
+        for (int i = from; i < sorted.length; i++) {
+            content.add(read(sorted[i]));
+        }
+        return content;
+    }
+
+    private int comparePositions(int record, int other) {
+        ByteBuffer segment = segment(record);
+        int base = offset(record);
+        ByteBuffer otherSegment = segment(other);
+        int otherBase = offset(other);
+        return comparePosition(segment.getLong(base + UPDATED_AT), segment.getLong(base + MSB), segment.getLong(base + LSB),
+                otherSegment.getLong(otherBase + UPDATED_AT), otherSegment.getLong(otherBase + MSB), otherSegment.getLong(otherBase + LSB));
+    }
+
+    private static int comparePosition(long nanos, long msb, long lsb, long otherNanos, long otherMsb, long otherLsb) {
+        int byTime = Long.compare(nanos, otherNanos);
+        if (byTime != 0) {
+            return byTime;
+        }
+        int byHigh = Long.compareUnsigned(msb, otherMsb);
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(lsb, otherLsb);
+    }
+
+    private boolean matches(int record, byte wanted) {
+        ByteBuffer segment = segment(record);
+        int base = offset(record);
+        return segment.get(base + FLAGS) == LIVE && (wanted == 0 || segment.get(base + STATUS) == wanted);
+    }
+
+    private RecordOrder recordOrder(Sort sort) {
+        RecordOrder order = (record, other) -> 0;
+        for (Sort.Order property : sort) {
+            order = order.then(recordOrder(property));
+        }
+        return order.then(this::compareIds);
+    }
+
+    /**
+     * Nulls sort first in ascending and last in descending order, as in HSQLDB, unless the
+     * order asks otherwise. Text properties are decoded for the comparison; all others are
+     * compared as stored.
+     */
+    private RecordOrder recordOrder(Sort.Order order) {
+        int direction = order.isAscending() ? 1 : -1;
+        int nulls = switch (order.getNullHandling()) {
+            case NULLS_FIRST -> -1;
+            case NULLS_LAST -> 1;
+            case NATIVE -> order.isAscending() ? -1 : 1;
+        };
+        return switch (order.getProperty()) {
+            case "title" -> textOrder(TITLE, direction, nulls);
+            case "description" -> textOrder(DESCRIPTION, direction, nulls);
+            case "createdBy" -> textOrder(CREATED_BY, direction, nulls);
+            case "modifiedBy" -> textOrder(MODIFIED_BY, direction, nulls);
+            case "status" -> (record, other) -> compareStored(
+                    byteAt(record, STATUS), byteAt(other, STATUS), 0, direction, nulls);
+            case "priority" -> (record, other) -> compareStored(
+                    byteAt(record, PRIORITY), byteAt(other, PRIORITY), 0, direction, nulls);
+            case "dueAt" -> timeOrder(DUE_AT, direction, nulls);
+            case "createdAt" -> timeOrder(CREATED_AT, direction, nulls);
+            case "updatedAt" -> timeOrder(UPDATED_AT, direction, nulls);
+            case "id" -> (record, other) -> direction * compareIds(record, other);
+            default -> throw new InvalidSortException("Cannot sort tasks by '" + order.getProperty() + "'");
+        };
+    }
+
+    private RecordOrder timeOrder(int field, int direction, int nulls) {
+        return (record, other) -> compareStored(longAt(record, field), longAt(other, field), NULL_TIME, direction, nulls);
+    }
+
+    private RecordOrder textOrder(int field, int direction, int nulls) {
+        return (record, other) -> {
+            String value = strings.get(longAt(record, field));
+            String otherValue = strings.get(longAt(other, field));
+            if (value == null || otherValue == null) {
+                return value == otherValue ? 0 : value == null ? nulls : -nulls;
+            }
+            return direction * value.compareTo(otherValue);
+        };
+    }
+
+    /**
+     * Orders by id as {@link UUID#compareTo} does.
+     */
+    private int compareIds(int record, int other) {
+        int byHigh = Long.compare(longAt(record, MSB), longAt(other, MSB));
+        return byHigh != 0 ? byHigh : Long.compare(longAt(record, LSB), longAt(other, LSB));
+    }
+
+    private static int compareStored(long value, long other, long nullValue, int direction, int nulls) {
+        if (value == nullValue || other == nullValue) {
+            return value == other ? 0 : value == nullValue ? nulls : -nulls;
+        }
+        return direction * Long.compare(value, other);
+    }
+
+    private long longAt(int record, int field) {
+        return segment(record).getLong(offset(record) + field);
+    }
+
+    private byte byteAt(int record, int field) {
+        return segment(record).get(offset(record) + field);
+    }
+
+    private int findRecord(long msb, long lsb) {
+        int ref = index.getInt(findSlot(msb, lsb) << 2);
+        return ref - 1;
+    }
+
+    /**
+     * @return The slot holding the given id, or the empty slot where it would be inserted
+     */
+    private int findSlot(long msb, long lsb) {
+        int mask = indexCapacity - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (true) {
+            int ref = index.getInt(slot << 2);
+            if (ref == 0) {
+                return slot;
+            }
+            ByteBuffer segment = segment(ref - 1);
+            int base = offset(ref - 1);
+            if (segment.getLong(base + MSB) == msb && segment.getLong(base + LSB) == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Empties a slot using backward-shift deletion, so that lookups never need tombstones.
+     */
+    private void removeSlot(int slot) {
+        int mask = indexCapacity - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (true) {
+            int ref = index.getInt(next << 2);
+            if (ref == 0) {
+                break;
+            }
+            ByteBuffer segment = segment(ref - 1);
+            int base = offset(ref - 1);
+            int home = hash(segment.getLong(base + MSB), segment.getLong(base + LSB)) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                index.putInt(hole << 2, ref);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        index.putInt(hole << 2, 0);
+    }
+
+    private void ensureIndexCapacity(int entries) {
+        if ((long) entries * 2 <= indexCapacity) {
+            return;
+        }
+        int capacity = indexCapacity;
+        while ((long) entries * 2 > capacity) {
+            if (capacity == MAX_INDEX_CAPACITY) {
+                throw new IllegalStateException("Task store index cannot grow beyond " + MAX_INDEX_CAPACITY / 2 + " tasks");
+            }
+            capacity <<= 1;
+        }
+        ByteBuffer old = index;
+        int oldCapacity = indexCapacity;
+        index = allocateIndex(capacity);
+        indexCapacity = capacity;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int ref = old.getInt(slot << 2);
+            if (ref != 0) {
+                ByteBuffer segment = segment(ref - 1);
+                int base = offset(ref - 1);
+                index.putInt(findSlot(segment.getLong(base + MSB), segment.getLong(base + LSB)) << 2, ref);
+            }
+        }
+    }
+
+    private ByteBuffer segment(int record) {
+        return records.get(record >>> SEGMENT_SHIFT);
+    }
+
+    private static int offset(int record) {
+        return (record & SEGMENT_MASK) * RECORD_SIZE;
+    }
+
+    private static ByteBuffer allocateIndex(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 32;
+        h *= 0xff51afd7ed558ccdL;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    private static long toNanos(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NULL_TIME;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    private static LocalDateTime toDateTime(long nanos) {
+        if (nanos == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static Status toStatus(byte value) {
+        return value == 0 ? null : STATUSES[value - 1];
+    }
+
+    private static Integer toPriority(byte value) {
+        return value == 0 ? null : (int) value;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Truncated task store snapshot");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Order of two records, compared in place.
+     */
+    @FunctionalInterface
+    private interface RecordOrder {
+
+        int compare(int record, int other);
+
+        default RecordOrder then(RecordOrder next) {
+            return (record, other) -> {
+                int result = compare(record, other);
+                return result != 0 ? result : next.compare(record, other);
+            };
+        }
+    }
+
+    /**
+     * Keeps the first {@code capacity} record numbers of an order, in a max-heap of primitive
+     * ints whose root is the last record kept.
+     */
+    private static final class TopRecords {
+
+        private final RecordOrder order;
+        private final int[] heap;
+        private int size;
+
+        TopRecords(RecordOrder order, int capacity) {
+            this.order = order;
+            this.heap = new int[capacity];
+        }
+
+        void offer(int record) {
+            if (size < heap.length) {
+                heap[size] = record;
+                siftUp(size++);
+            } else if (size > 0 && order.compare(record, heap[0]) < 0) {
+                heap[0] = record;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Empties the heap.
+         *
+         * @return The records kept, in order
+         */
+        int[] sorted() {
+            int[] sorted = new int[size];
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                sorted[i] = heap[0];
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+            return sorted;
+        }
+
+        private void siftUp(int position) {
+            int record = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (order.compare(record, heap[parent]) <= 0) {
+                    break;
+                }
+                heap[position] = heap[parent];
+                position = parent;
+            }
+            heap[position] = record;
+        }
+
+        private void siftDown(int position) {
+            if (size == 0) {
+                return;
+            }
+            int record = heap[position];
+            int half = size >>> 1;
+            while (position < half) {
+                int child = 2 * position + 1;
+                if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                    child++;
+                }
+                if (order.compare(record, heap[child]) >= 0) {
+                    break;
+                }
+                heap[position] = heap[child];
+                position = child;
+            }
+            heap[position] = record;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.kiosite.kiositetest.repository.offheap;
+
+import com.kiosite.kiositetest.config.OffHeapStorage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Writes the {@link OffHeapTaskStore} to its snapshot file periodically and on shutdown.
+ * Does nothing when {@code tasks.offheap.snapshot.path} is blank.
+ */
+@Slf4j
+@Component
+@OffHeapStorage
+public class OffHeapTaskStoreSnapshotter {
+
+    private final OffHeapTaskStore taskStore;
+    private final String snapshotPath;
+
+    public OffHeapTaskStoreSnapshotter(OffHeapTaskStore taskStore,
+                                       @Value("${tasks.offheap.snapshot.path:}") String snapshotPath) {
+        this.taskStore = taskStore;
+        this.snapshotPath = snapshotPath;
+    }
+
+    @PreDestroy
+    @Scheduled(initialDelayString = "${tasks.offheap.snapshot.interval:PT5M}",
+            fixedDelayString = "${tasks.offheap.snapshot.interval:PT5M}")
+    public synchronized void snapshot() {
+        if (snapshotPath.isBlank()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            taskStore.snapshot(Path.of(snapshotPath));
+            log.debug("Wrote snapshot of {} tasks to {} in {} ms",
+                    taskStore.count(), snapshotPath, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException ex) {
+            log.error("Could not write task store snapshot to {}", snapshotPath, ex);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.kiosite.kiositetest.repository.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only store of UTF-8 strings in direct memory.
+ * <p>
+ * Each string is written as a 4-byte length followed by its bytes and is addressed by a
+ * {@code long} reference combining the segment number and the offset within the segment.
+ * Strings never span segments. Space of released strings is only counted, not reused; it
+ * is reclaimed only when the owning store is restored from a snapshot, which replaces the
+ * arena with a new one.
+ * <p>
+ * Not thread-safe; {@link OffHeapTaskStore} guards every access with its lock.
+ */
+final class StringArena {
+
+    static final long NULL_REF = -1L;
+
+    private static final int SEGMENT_SHIFT = 24;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final long OFFSET_MASK = SEGMENT_SIZE - 1;
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private long next;
+    private long releasedBytes;
+
+    /**
+     * @param value String to store, may be {@code null}
+     * @return Reference to the stored string, or {@link #NULL_REF} for {@code null}
+     */
+    long put(String value) {
+        if (value == null) {
+            return NULL_REF;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int size = Integer.BYTES + bytes.length;
+        if (size > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes exceeds the arena segment size");
+        }
+
+        int segment = (int) (next >>> SEGMENT_SHIFT);
+        int offset = (int) (next & OFFSET_MASK);
+        if (offset + size > SEGMENT_SIZE) {
+            segment++;
+            offset = 0;
+        }
+        if (segment == segments.size()) {
+            segments.add(ByteBuffer.allocateDirect(SEGMENT_SIZE).order(ByteOrder.nativeOrder()));
+        }
+
+        ByteBuffer buffer = segments.get(segment);
+        buffer.putInt(offset, bytes.length);
+        buffer.put(offset + Integer.BYTES, bytes);
+        long ref = ((long) segment << SEGMENT_SHIFT) | offset;
+        next = ref + size;
+        return ref;
+    }
+
+    /**
+     * @param ref Reference returned by {@link #put}
+     * @return The stored string, or {@code null} for {@link #NULL_REF}
+     */
+    String get(long ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        ByteBuffer buffer = segments.get((int) (ref >>> SEGMENT_SHIFT));
+        int offset = (int) (ref & OFFSET_MASK);
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Marks a string as no longer referenced.
+     *
+     * @param ref Reference returned by {@link #put}
+     */
+    void release(long ref) {
+        if (ref != NULL_REF) {
+            ByteBuffer buffer = segments.get((int) (ref >>> SEGMENT_SHIFT));
+            releasedBytes += Integer.BYTES + buffer.getInt((int) (ref & OFFSET_MASK));
+        }
+    }
+
+    /**
+     * @return Bytes of direct memory reserved by the arena
+     */
+    long reservedBytes() {
+        return (long) segments.size() * SEGMENT_SIZE;
+    }
+
+    /**
+     * @return Bytes occupied by strings that are no longer referenced
+     */
+    long releasedBytes() {
+        return releasedBytes;
+    }
+
+    /**
+     * Drops all segments, letting their direct memory be reclaimed.
+     */
+    void clear() {
+        segments.clear();
+        next = 0;
+        releasedBytes = 0;
+    }
+}
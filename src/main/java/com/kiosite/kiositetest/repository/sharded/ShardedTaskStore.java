@@ -0,0 +1,519 @@
+package com.kiosite.kiositetest.repository.sharded;
+
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.entity.TaskTombstone;
+import com.kiosite.kiositetest.exception.InvalidSortException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Task storage engine spreading tasks over several independent SQL databases, the shards.
+ * <p>
+ * Each task lives in the shard picked by a hash of its id, so operations on one task touch a
+ * single shard, and writes to different shards neither share a connection pool nor wait on
+ * each other's locks. The shard count is part of the data layout: reopening file-based
+ * shards with a different count would look tasks up in the wrong shard.
+ * <p>
+ * Queries over all tasks are scatter-gathered: every shard runs the same ordered and
+ * limited query in parallel, and the sorted results are combined with a k-way merge. A page
+ * at offset {@code o} therefore reads up to {@code o + size} rows from every shard, which
+ * keeps the first pages cheap but makes deep pages cost {@code shards} times more than on a
+ * single database. Orderings always end with the id, compared as unsigned bytes as the
+ * databases do, so that the merge reproduces the order of a single database exactly.
+ * <p>
+ * Shards share no transaction: a scatter-gather query reads each shard at a slightly
+ * different moment.
+ */
+public class ShardedTaskStore implements AutoCloseable {
+
+    private static final String COLUMNS =
+            "id, title, description, status, priority, due_at, created_at, updated_at, created_by, modified_by";
+
+    /**
+     * Statements run on every shard at startup. Strings compare without padding, as in Java,
+     * so that the merge sees the same order as the shards.
+     */
+    private static final List<String> SCHEMA = List.of(
+            "SET DATABASE COLLATION SQL_TEXT NO PAD",
+            """
+                    CREATE TABLE IF NOT EXISTS task (
+                        id UUID PRIMARY KEY,
+                        title VARCHAR(100) NOT NULL,
+                        description VARCHAR(255),
+                        status VARCHAR(20),
+                        priority INTEGER NOT NULL,
+                        due_at TIMESTAMP,
+                        undated BOOLEAN NOT NULL,
+                        created_at TIMESTAMP,
+                        updated_at TIMESTAMP,
+                        created_by VARCHAR(255),
+                        modified_by VARCHAR(255))""",
+            "CREATE INDEX IF NOT EXISTS idx_task_status_updated_at ON task (status, updated_at)",
+            "CREATE INDEX IF NOT EXISTS idx_task_updated_at ON task (updated_at, id)",
+            "CREATE INDEX IF NOT EXISTS idx_task_next ON task (status, priority, undated, due_at, id)",
+            "CREATE TABLE IF NOT EXISTS task_tombstone (id UUID PRIMARY KEY, deleted_at TIMESTAMP NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS idx_task_tombstone_deleted_at ON task_tombstone (deleted_at, id)");
+
+    private static final Comparator<UUID> UNSIGNED_IDS = (a, b) -> {
+        int byHigh = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+    private static final Comparator<Task> BY_NEXT = Comparator.comparing(Task::getPriority)
+            .thenComparing(Task::getDueAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Task::getId, UNSIGNED_IDS);
+    private static final Comparator<Task> BY_POSITION = Comparator.comparing(Task::getUpdatedAt)
+            .thenComparing(Task::getId, UNSIGNED_IDS);
+    private static final Comparator<TaskTombstone> TOMBSTONES_BY_POSITION = Comparator.comparing(TaskTombstone::getDeletedAt)
+            .thenComparing(TaskTombstone::getId, UNSIGNED_IDS);
+
+    private static final RowMapper<Task> TASK_MAPPER = ShardedTaskStore::mapTask;
+    private static final RowMapper<TaskTombstone> TOMBSTONE_MAPPER = (rs, row) -> new TaskTombstone(
+            rs.getObject("id", UUID.class), rs.getObject("deleted_at", LocalDateTime.class));
+
+    private final List<Shard> shards;
+    private final ExecutorService scatterPool;
+
+    /**
+     * Opens the store over the given shards, creating the tables missing from them.
+     *
+     * @param dataSources One data source per shard; the order decides which tasks each holds
+     */
+    public ShardedTaskStore(List<? extends DataSource> dataSources) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = IntStream.range(0, dataSources.size())
+                .mapToObj(index -> Shard.of(index, dataSources.get(index)))
+                .toList();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scatterPool = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "task-shard-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        shards.forEach(shard -> SCHEMA.forEach(shard.jdbc()::execute));
+    }
+
+    /**
+     * @return Number of shards
+     */
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * @param id Task id
+     * @return Index of the shard holding the task with this id
+     */
+    public int shardOf(UUID id) {
+        return Math.floorMod(id.hashCode(), shards.size());
+    }
+
+    /**
+     * Stores a new task in its shard.
+     *
+     * @param task Task with its id and audit fields set
+     * @throws org.springframework.dao.DuplicateKeyException if a task with the same id exists
+     */
+    public void insert(Task task) {
+        shard(task.getId()).jdbc().update("INSERT INTO task (" + COLUMNS + ", undated) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                task.getId(), task.getTitle(), task.getDescription(), name(task.getStatus()), task.getPriority(),
+                task.getDueAt(), task.getCreatedAt(), task.getUpdatedAt(), task.getCreatedBy(), task.getModifiedBy(),
+                task.getDueAt() == null);
+    }
+
+    /**
+     * Overwrites the mutable fields of a stored task, unless it currently has a given status.
+     * <p>
+     * The status condition is part of the {@code UPDATE}, so it holds against concurrent
+     * updates without locking the row in between; the updated task is read back in the same
+     * shard transaction.
+     *
+     * @param task         New version of the task; a {@code null} status keeps the stored one
+     * @param unlessStatus Status in which the task is left unchanged, or {@code null}
+     * @return The stored task after the update, or empty if it does not exist or has
+     * {@code unlessStatus}
+     */
+    public Optional<Task> replace(Task task, Status unlessStatus) {
+        Shard shard = shard(task.getId());
+        String condition = unlessStatus != null ? " AND (status IS NULL OR status <> ?)" : "";
+        List<Object> args = new ArrayList<>(Arrays.asList(
+                task.getTitle(), task.getDescription(), name(task.getStatus()), task.getPriority(), task.getDueAt(),
+                task.getDueAt() == null, task.getUpdatedAt(), task.getModifiedBy(), task.getId()));
+        if (unlessStatus != null) {
+            args.add(unlessStatus.name());
+        }
+        return shard.transactionTemplate().execute(status -> {
+            int updated = shard.jdbc().update("""
+                    UPDATE task SET title = ?, description = ?, status = COALESCE(?, status), priority = ?, due_at = ?,
+                    undated = ?, updated_at = ?, modified_by = ? WHERE id = ?""" + condition, args.toArray());
+            return updated > 0 ? get(task.getId()) : Optional.<Task>empty();
+        });
+    }
+
+    /**
+     * Removes a task and records its tombstone in the same shard transaction.
+     *
+     * @param id        Id of the task to remove
+     * @param deletedAt Removal time, stored in the tombstone
+     * @return Whether the task existed
+     */
+    public boolean remove(UUID id, LocalDateTime deletedAt) {
+        Shard shard = shard(id);
+        return Boolean.TRUE.equals(shard.transactionTemplate().execute(status -> {
+            if (shard.jdbc().update("DELETE FROM task WHERE id = ?", id) == 0) {
+                return false;
+            }
+            shard.jdbc().update("INSERT INTO task_tombstone (id, deleted_at) VALUES (?, ?)", id, deletedAt);
+            return true;
+        }));
+    }
+
+    public Optional<Task> get(UUID id) {
+        return shard(id).jdbc().query("SELECT " + COLUMNS + " FROM task WHERE id = ?", TASK_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Looks up several tasks, with one query per shard holding any of them, run in parallel.
+     *
+     * @param ids Task ids
+     * @return The found tasks by id
+     */
+    public Map<UUID, Task> getAll(Collection<UUID> ids) {
+        Map<Integer, List<UUID>> idsByShard = ids.stream().distinct().collect(Collectors.groupingBy(this::shardOf));
+        Map<UUID, Task> found = new HashMap<>();
+        scatter(shard -> {
+            List<UUID> shardIds = idsByShard.getOrDefault(shard.index(), List.of());
+            if (shardIds.isEmpty()) {
+                return List.<Task>of();
+            }
+            String placeholders = String.join(", ", Collections.nCopies(shardIds.size(), "?"));
+            return shard.jdbc().query("SELECT " + COLUMNS + " FROM task WHERE id IN (" + placeholders + ")",
+                    TASK_MAPPER, shardIds.toArray());
+        }).forEach(tasks -> tasks.forEach(task -> found.put(task.getId(), task)));
+        return found;
+    }
+
+    /**
+     * Lists a page of tasks, optionally with a given status, in the order asked by the page
+     * request, followed by the id.
+     * <p>
+     * Every shard returns its first {@code offset + size} matching tasks and its count; the
+     * page is cut from the k-way merge of the shard results.
+     *
+     * @param status   Optional status filter
+     * @param pageable Page request
+     * @return The page of tasks
+     * @throws InvalidSortException if the sort refers to an unknown property
+     */
+    public Page<Task> findAll(Status status, Pageable pageable) {
+        String where = status != null ? " WHERE status = ?" : "";
+        Object[] filter = status != null ? new Object[]{status.name()} : new Object[0];
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", ", id");
+        orderBy.setEmptyValue(" ORDER BY id");
+        pageable.getSort().forEach(order -> orderBy.add(orderClause(order)));
+        long keep = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Long.MAX_VALUE;
+        String limit = pageable.isPaged() ? " LIMIT " + keep : "";
+        Comparator<Task> comparator = comparator(pageable.getSort());
+
+        List<ShardPage> shardPages = scatter(shard -> new ShardPage(
+                shard.jdbc().query("SELECT " + COLUMNS + " FROM task" + where + orderBy + limit, TASK_MAPPER, filter),
+                shard.jdbc().queryForObject("SELECT COUNT(*) FROM task" + where, Long.class, filter)));
+        long total = shardPages.stream().mapToLong(ShardPage::total).sum();
+        List<Task> content = merge(shardPages.stream().map(ShardPage::tasks).toList(), comparator,
+                pageable.isPaged() ? pageable.getOffset() : 0, pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Lists the most urgent tasks with the given status: by priority, then due date with
+     * undated tasks last. Each shard reads only {@code limit} entries of {@code idx_task_next}.
+     *
+     * @param status Status of the tasks to list
+     * @param limit  Maximum number of tasks to return
+     * @return The tasks, most urgent first
+     */
+    public List<Task> findNext(Status status, int limit) {
+        return merge(scatter(shard -> shard.jdbc().query("SELECT " + COLUMNS + " FROM task WHERE status = ?"
+                        + " ORDER BY status, priority, undated, due_at, id LIMIT ?", TASK_MAPPER, status.name(), limit)),
+                BY_NEXT, 0, limit);
+    }
+
+    /**
+     * Lists the tasks updated after the position {@code (after, afterId)} and no later than
+     * {@code until}, ordered by update time and then by id. Each shard reads only
+     * {@code limit} entries of {@code idx_task_updated_at}.
+     *
+     * @param after   Update time of the position to start after
+     * @param afterId Id of the position to start after
+     * @param until   Latest update time to include
+     * @param limit   Maximum number of tasks to return
+     * @return The tasks, in position order
+     */
+    public List<Task> findChangedAfter(LocalDateTime after, UUID afterId, LocalDateTime until, int limit) {
+        return merge(scatter(shard -> shard.jdbc().query("SELECT " + COLUMNS + " FROM task"
+                        + " WHERE updated_at >= ? AND (updated_at > ? OR id > ?) AND updated_at <= ?"
+                        + " ORDER BY updated_at, id LIMIT ?", TASK_MAPPER, after, after, afterId, until, limit)),
+                BY_POSITION, 0, limit);
+    }
+
+    /**
+     * Lists the tombstones recorded after the position {@code (after, afterId)} and no later
+     * than {@code until}, ordered by removal time and then by id.
+     *
+     * @param after   Removal time of the position to start after
+     * @param afterId Id of the position to start after
+     * @param until   Latest removal time to include
+     * @param limit   Maximum number of tombstones to return
+     * @return The tombstones, in position order
+     */
+    public List<TaskTombstone> findDeletedAfter(LocalDateTime after, UUID afterId, LocalDateTime until, int limit) {
+        return merge(scatter(shard -> shard.jdbc().query("SELECT id, deleted_at FROM task_tombstone"
+                        + " WHERE deleted_at >= ? AND (deleted_at > ? OR id > ?) AND deleted_at <= ?"
+                        + " ORDER BY deleted_at, id LIMIT ?", TOMBSTONE_MAPPER, after, after, afterId, until, limit)),
+                TOMBSTONES_BY_POSITION, 0, limit);
+    }
+
+    /**
+     * @param cutoff Removal time before which tombstones are dropped
+     * @return Number of tombstones dropped from all shards
+     */
+    public int deleteTombstonesBefore(LocalDateTime cutoff) {
+        return scatter(shard -> shard.jdbc().update("DELETE FROM task_tombstone WHERE deleted_at < ?", cutoff))
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    /**
+     * @return Number of stored tasks in all shards
+     */
+    public long count() {
+        return scatter(shard -> shard.jdbc().queryForObject("SELECT COUNT(*) FROM task", Long.class))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    /**
+     * Stops the query threads and closes the shard data sources that can be closed.
+     */
+    @Override
+    public void close() {
+        scatterPool.shutdownNow();
+        for (Shard shard : shards) {
+            if (shard.dataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    throw new IllegalStateException("Could not close shard " + shard.index(), ex);
+                }
+            }
+        }
+    }
+
+    private Shard shard(UUID id) {
+        return shards.get(shardOf(id));
+    }
+
+    /**
+     * Runs a query on every shard, in parallel when there are several.
+     *
+     * @return The results, in shard order
+     */
+    private <T> List<T> scatter(Function<Shard, T> query) {
+        if (shards.size() == 1) {
+            return List.of(query.apply(shards.get(0)));
+        }
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), scatterPool))
+                .toList();
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Merges lists that are each sorted by the comparator, keeping a heap of the head of
+     * every list.
+     *
+     * @param runs       Sorted lists
+     * @param comparator Order of every list
+     * @param skip       Number of leading elements of the merged order to drop
+     * @param limit      Maximum number of elements to return
+     * @return The merged elements
+     */
+    static <T> List<T> merge(List<List<T>> runs, Comparator<? super T> comparator, long skip, long limit) {
+        PriorityQueue<MergeRun<T>> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> comparator.compare(a.head, b.head));
+        for (List<T> run : runs) {
+            if (!run.isEmpty()) {
+                heads.add(new MergeRun<>(run.iterator()));
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        long toSkip = skip;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            MergeRun<T> run = heads.poll();
+            if (toSkip > 0) {
+                toSkip--;
+            } else {
+                merged.add(run.head);
+            }
+            if (run.advance()) {
+                heads.add(run);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Nulls sort first in ascending and last in descending order, as in HSQLDB, unless the
+     * order asks otherwise. The SQL spells the null ordering out so that it always matches
+     * {@link #property}.
+     */
+    private static String orderClause(Sort.Order order) {
+        return column(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC")
+                + (nullsFirst(order) ? " NULLS FIRST" : " NULLS LAST");
+    }
+
+    private static String column(String property) {
+        return switch (property) {
+            case "title" -> "title";
+            case "description" -> "description";
+            case "status" -> "status";
+            case "priority" -> "priority";
+            case "dueAt" -> "due_at";
+            case "createdAt" -> "created_at";
+            case "updatedAt" -> "updated_at";
+            case "createdBy" -> "created_by";
+            case "modifiedBy" -> "modified_by";
+            case "id" -> "id";
+            default -> throw new InvalidSortException("Cannot sort tasks by '" + property + "'");
+        };
+    }
+
+    private static Comparator<Task> comparator(Sort sort) {
+        Comparator<Task> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            comparator = comparator.thenComparing(property(order));
+        }
+        return comparator.thenComparing(Task::getId, UNSIGNED_IDS);
+    }
+
+    /**
+     * Compares the values as the shards order them: the status by its stored name rather
+     * than by ordinal.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Task> property(Sort.Order order) {
+        if (order.getProperty().equals("id")) {
+            return Comparator.comparing(Task::getId, order.isAscending() ? UNSIGNED_IDS : UNSIGNED_IDS.reversed());
+        }
+        Function<Task, Comparable> getter = switch (order.getProperty()) {
+            case "title" -> Task::getTitle;
+            case "description" -> Task::getDescription;
+            case "status" -> task -> name(task.getStatus());
+            case "priority" -> Task::getPriority;
+            case "dueAt" -> Task::getDueAt;
+            case "createdAt" -> Task::getCreatedAt;
+            case "updatedAt" -> Task::getUpdatedAt;
+            case "createdBy" -> Task::getCreatedBy;
+            case "modifiedBy" -> Task::getModifiedBy;
+            default -> throw new InvalidSortException("Cannot sort tasks by '" + order.getProperty() + "'");
+        };
+        Comparator<Comparable> values = order.isAscending() ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        return Comparator.comparing(getter, nullsFirst(order) ? Comparator.nullsFirst(values) : Comparator.nullsLast(values));
+    }
+
+    private static boolean nullsFirst(Sort.Order order) {
+        return switch (order.getNullHandling()) {
+            case NULLS_FIRST -> true;
+            case NULLS_LAST -> false;
+            case NATIVE -> order.isAscending();
+        };
+    }
+
+    private static String name(Status status) {
+        return status != null ? status.name() : null;
+    }
+
+    private static Task mapTask(ResultSet rs, int row) throws SQLException {
+        String status = rs.getString("status");
+        Task task = Task.builder()
+                .id(rs.getObject("id", UUID.class))
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .status(status != null ? Status.valueOf(status) : null)
+                .priority(rs.getInt("priority"))
+                .dueAt(rs.getObject("due_at", LocalDateTime.class))
+                .build();
+        task.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        task.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        task.setCreatedBy(rs.getString("created_by"));
+        task.setModifiedBy(rs.getString("modified_by"));
+        return task;
+    }
+
+    private record Shard(int index, DataSource dataSource, JdbcTemplate jdbc, TransactionTemplate transactionTemplate) {
+
+        static Shard of(int index, DataSource dataSource) {
+            return new Shard(index, dataSource, new JdbcTemplate(dataSource),
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        }
+    }
+
+    private record ShardPage(List<Task> tasks, long total) {
+    }
+
+    private static final class MergeRun<T> {
+
+        private final Iterator<T> rest;
+        private T head;
+
+        MergeRun(Iterator<T> rest) {
+            this.rest = rest;
+            this.head = rest.next();
+        }
+
+        boolean advance() {
+            if (!rest.hasNext()) {
+                return false;
+            }
+            head = rest.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.kiosite.kiositetest.service;
+
+import com.kiosite.kiositetest.exception.IdempotencyKeyReuseException;
+
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of non-idempotent operations (such as creating a task) so that
+ * client retries carrying the same {@code Idempotency-Key} replay the original result
+ * instead of executing the operation again.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Executes the given action at most once per principal and key.
+     * <p>
+     * The first call runs the action and stores its result. Later calls with the same
+     * principal and key return the stored result while it has not expired; concurrent
+     * calls wait for the first one to finish instead of running the action themselves.
+     * If the action fails, nothing is stored and the next call runs it again.
+     *
+     * @param principal   Name of the authenticated user the key belongs to
+     * @param key         Client-supplied idempotency key
+     * @param fingerprint Value identifying the request payload; a replay with a different payload is rejected
+     * @param action      Operation to execute when no result is stored yet
+     * @param <T>         Result type
+     * @return The result of the first execution
+     * @throws IdempotencyKeyReuseException if the key was already used with a different payload
+     */
+    <T> Result<T> execute(String principal, String key, Object fingerprint, Supplier<T> action);
+
+    /**
+     * Outcome of {@link #execute}.
+     *
+     * @param value    The stored result
+     * @param replayed {@code true} if the value comes from a previous execution
+     * @param <T>      Result type
+     */
+    record Result<T>(T value, boolean replayed) {
+    }
+}
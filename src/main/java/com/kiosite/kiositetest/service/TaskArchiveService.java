@@ -0,0 +1,12 @@
+package com.kiosite.kiositetest.service;
+
+public interface TaskArchiveService {
+
+    /**
+     * Moves completed tasks older than the configured age to the archive table.
+     *
+     * @return Number of tasks archived
+     */
+    int archiveCompletedTasks();
+
+}
@@ -0,0 +1,158 @@
+package com.kiosite.kiositetest.service;
+
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.CursorExpiredException;
+import com.kiosite.kiositetest.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feed of task changes for clients that keep a local copy of the tasks.
+ * <p>
+ * Every change has a position: {@code (updatedAt, id)} for a created or updated task and
+ * {@code (deletedAt, id)} for a removed one. The feed returns changes in position order
+ * after a {@link ChangeCursor}, so the cost of a sync depends on the number of changes
+ * rather than the number of tasks.
+ */
+public interface TaskChangeService {
+
+    /**
+     * Retrieves the changes after a cursor.
+     * <p>
+     * Changes newer than the settle time are held back until writes that started before them
+     * have had time to commit, so that no change lands behind a cursor already handed out.
+     *
+     * @param since Position of the last change the client has, or {@code null} for all tasks
+     * @param limit Maximum number of changes to return
+     * @return The changes and the cursor to continue from
+     * @throws CursorExpiredException if tombstones after the cursor may already have been purged
+     */
+    Changes getChanges(ChangeCursor since, int limit);
+
+    /**
+     * Purges the tombstones older than the retention window.
+     *
+     * @return Number of tombstones purged
+     */
+    int purgeExpiredTombstones();
+
+    /**
+     * Position in the changes feed. Ids break ties between changes with the same timestamp
+     * and compare as unsigned bytes, as the database orders them.
+     *
+     * @param at Time of the change
+     * @param id Id of the changed task
+     */
+    record ChangeCursor(LocalDateTime at, UUID id) implements Comparable<ChangeCursor> {
+
+        /**
+         * Position before every change.
+         */
+        public static final ChangeCursor START = new ChangeCursor(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0, 0));
+
+        private static final char SEPARATOR = '_';
+
+        /**
+         * Position after every change made at {@code at} or earlier.
+         */
+        public static ChangeCursor after(LocalDateTime at) {
+            return new ChangeCursor(at, new UUID(-1, -1));
+        }
+
+        /**
+         * @return The position of the last change to a task
+         */
+        public static ChangeCursor of(Task task) {
+            return new ChangeCursor(task.getUpdatedAt(), task.getId());
+        }
+
+        /**
+         * @return The opaque form handed to clients
+         */
+        public String encode() {
+            String value = at + String.valueOf(SEPARATOR) + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @param cursor Value returned by {@link #encode()}
+         * @return The decoded cursor
+         * @throws InvalidCursorException if the value is not a cursor
+         */
+        public static ChangeCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf(SEPARATOR);
+                return new ChangeCursor(LocalDateTime.parse(value.substring(0, separator)),
+                        UUID.fromString(value.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+                throw new InvalidCursorException("Invalid change cursor: " + cursor);
+            }
+        }
+
+        @Override
+        public int compareTo(ChangeCursor other) {
+            int byTime = at.compareTo(other.at);
+            if (byTime != 0) {
+                return byTime;
+            }
+            int byHigh = Long.compareUnsigned(id.getMostSignificantBits(), other.id.getMostSignificantBits());
+            return byHigh != 0 ? byHigh : Long.compareUnsigned(id.getLeastSignificantBits(), other.id.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * Outcome of {@link #getChanges}.
+     *
+     * @param tasks   Tasks created or updated after the cursor, in position order
+     * @param deleted Ids of tasks removed after the cursor, in position order
+     * @param next    Cursor to pass on the next call
+     * @param hasMore Whether more changes are available right away
+     */
+    record Changes(List<Task> tasks, List<UUID> deleted, ChangeCursor next, boolean hasMore) {
+
+        /**
+         * Merges the task and tombstone streams after a cursor into one page of changes.
+         * <p>
+         * When the page holds every pending change, the next cursor moves up to {@code until}
+         * even if nothing changed, so that idle clients do not fall out of the retention window.
+         *
+         * @param since      Cursor the changes were read after
+         * @param until      Time up to which the streams were read
+         * @param tasks      Changed tasks in position order, up to {@code limit + 1}
+         * @param tombstones Tombstone positions in order, up to {@code limit + 1}
+         * @param limit      Maximum number of changes in the page
+         * @return The page of changes
+         */
+        public static Changes of(ChangeCursor since, LocalDateTime until, List<Task> tasks,
+                                 List<ChangeCursor> tombstones, int limit) {
+            List<Task> changed = new ArrayList<>();
+            List<UUID> deleted = new ArrayList<>();
+            ChangeCursor last = since;
+            int t = 0;
+            int d = 0;
+            while (t + d < limit && (t < tasks.size() || d < tombstones.size())) {
+                ChangeCursor task = t < tasks.size() ? ChangeCursor.of(tasks.get(t)) : null;
+                ChangeCursor tombstone = d < tombstones.size() ? tombstones.get(d) : null;
+                if (tombstone == null || (task != null && task.compareTo(tombstone) < 0)) {
+                    changed.add(tasks.get(t++));
+                    last = task;
+                } else {
+                    deleted.add(tombstone.id());
+                    d++;
+                    last = tombstone;
+                }
+            }
+            boolean hasMore = t < tasks.size() || d < tombstones.size();
+            ChangeCursor caughtUp = ChangeCursor.after(until);
+            ChangeCursor next = hasMore || caughtUp.compareTo(last) < 0 ? last : caughtUp;
+            return new Changes(changed, deleted, next, hasMore);
+        }
+    }
+}
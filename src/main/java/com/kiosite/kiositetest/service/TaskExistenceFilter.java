@@ -0,0 +1,31 @@
+package com.kiosite.kiositetest.service;
+
+import java.util.UUID;
+
+/**
+ * Probabilistic set of existing task ids, used to reject lookups of unknown ids without
+ * querying the database.
+ * <p>
+ * Implementations may report false positives but never false negatives: an id that was
+ * added (or present at the last rebuild) is always reported as possibly existing.
+ */
+public interface TaskExistenceFilter {
+
+    /**
+     * @param id Task UUID
+     * @return {@code false} if the task definitely does not exist, {@code true} if it might
+     */
+    boolean mightContain(UUID id);
+
+    /**
+     * Registers a newly created task id.
+     *
+     * @param id Task UUID
+     */
+    void add(UUID id);
+
+    /**
+     * Rebuilds the filter from the ids currently stored, dropping ids of deleted tasks.
+     */
+    void rebuild();
+}
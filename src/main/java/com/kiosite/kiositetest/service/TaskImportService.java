@@ -0,0 +1,64 @@
+package com.kiosite.kiositetest.service;
+
+import com.kiosite.kiositetest.entity.ImportFormat;
+import com.kiosite.kiositetest.entity.ImportJob;
+import com.kiosite.kiositetest.exception.ImportFormatMismatchException;
+import com.kiosite.kiositetest.exception.ImportInProgressException;
+import com.kiosite.kiositetest.exception.NotFoundException;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk loads tasks from a CSV or NDJSON stream.
+ * <p>
+ * Input is parsed incrementally and committed in chunks, each chunk in its own transaction
+ * together with the progress of its {@link ImportJob}, so memory use does not depend on the
+ * size of the input and a failed import can be resumed where it stopped.
+ */
+public interface TaskImportService {
+
+    /**
+     * Imports all tasks from the given input, blocking until it is consumed or the import fails.
+     * <p>
+     * Rows that cannot be parsed or fail validation are skipped and counted as rejected;
+     * they do not fail the import. When {@code jobId} names an unfinished job, the rows it
+     * already committed are skipped, so the same input must be supplied again.
+     *
+     * @param jobId  Optional id for the job; {@code null} starts a new job with a random id
+     * @param format Format of the input
+     * @param input  Source stream, read to the end but not closed
+     * @return The final state of the job and a sample of rejected rows
+     * @throws ImportInProgressException     if the job is already running
+     * @throws ImportFormatMismatchException if the job was started with another format
+     */
+    Result importTasks(UUID jobId, ImportFormat format, InputStream input);
+
+    /**
+     * Retrieves the current progress of an import job.
+     *
+     * @param jobId Id of the job
+     * @return The job
+     * @throws NotFoundException if no job exists with the given id
+     */
+    ImportJob getJob(UUID jobId);
+
+    /**
+     * Outcome of {@link #importTasks}.
+     *
+     * @param job        The job, {@code COMPLETED} or {@code FAILED}
+     * @param rejections First rejected rows of this run, up to the configured limit
+     */
+    record Result(ImportJob job, List<Rejection> rejections) {
+    }
+
+    /**
+     * A source row that was not imported.
+     *
+     * @param row     1-based number of the record in the input, not counting the CSV header
+     * @param message Why the row was rejected
+     */
+    record Rejection(long row, String message) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.kiosite.kiositetest.service;
+
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory view of the task table used to answer reads without going to the database.
+ * <p>
+ * The view is loaded at startup and kept up to date by the write paths once their
+ * transactions commit. Callers must fall back to the database whenever the view is not
+ * ready or cannot answer a query.
+ */
+public interface TaskReadModel {
+
+    /**
+     * @return {@code true} if the view is enabled and fully loaded
+     */
+    boolean isReady();
+
+    /**
+     * @param id Task UUID
+     * @return A copy of the task, or empty if it is not in the view
+     */
+    Optional<Task> findById(UUID id);
+
+    /**
+     * Pages over the view, optionally filtered by status.
+     *
+     * @param status   Optional {@link Status} to filter tasks
+     * @param pageable Page request; only unsorted or {@code createdAt} ordering is supported
+     * @return The page, or empty if the view is not ready or cannot serve the requested ordering
+     */
+    Optional<Page<Task>> findAll(Status status, Pageable pageable);
+
+    /**
+     * Adds or replaces a committed task.
+     *
+     * @param task Task as committed to the database
+     */
+    void upsert(Task task);
+
+    /**
+     * Removes tasks whose deletion has been committed.
+     *
+     * @param ids UUIDs of the removed tasks
+     */
+    void removeAll(Collection<UUID> ids);
+
+    /**
+     * Reloads the whole view from the database.
+     */
+    void rebuild();
+}
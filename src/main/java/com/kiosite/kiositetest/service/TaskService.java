@@ -1,12 +1,17 @@
 package com.kiosite.kiositetest.service;
 
 import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+import com.kiosite.kiositetest.entity.ArchivedTask;
 import com.kiosite.kiositetest.entity.Status;
 import com.kiosite.kiositetest.entity.Task;
 import com.kiosite.kiositetest.exception.InvalidStatusException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface TaskService {
@@ -15,10 +20,58 @@ public interface TaskService {
 
     Page<Task> getAllTasks(Status status, Pageable pageable);
 
+    Page<ArchivedTask> getArchivedTasks(Status status, Pageable pageable);
+
     Task getTaskById(UUID id);
 
+    /**
+     * Retrieves several tasks at once. Unknown ids are reported instead of failing the lookup.
+     *
+     * @param ids Task UUIDs; duplicates are looked up once
+     * @return The found tasks and the missing ids, both in request order
+     */
+    Lookup getTasksByIds(Collection<UUID> ids);
+
+    /**
+     * Retrieves the most urgent pending tasks: by priority, then by due date, tasks without a
+     * due date last.
+     *
+     * @param limit Maximum number of tasks to return
+     * @return Up to {@code limit} pending tasks, most urgent first
+     */
+    List<Task> getNextTasks(int limit);
+
     Task updateTask(UUID id, TaskRequestDTO taskDTO) throws InvalidStatusException;
 
     void deleteTask(UUID id);
 
+    /**
+     * Outcome of {@link #getTasksByIds}.
+     *
+     * @param tasks   Found tasks, in the order their ids were requested
+     * @param missing Requested ids with no task, in request order
+     */
+    record Lookup(List<Task> tasks, List<UUID> missing) {
+
+        /**
+         * Orders the tasks found for a lookup by the requested ids.
+         *
+         * @param ids   Requested ids, without duplicates
+         * @param found Found tasks by id
+         * @return The lookup result
+         */
+        public static Lookup of(Collection<UUID> ids, Map<UUID, Task> found) {
+            List<Task> tasks = new ArrayList<>(found.size());
+            List<UUID> missing = new ArrayList<>(ids.size() - found.size());
+            for (UUID id : ids) {
+                Task task = found.get(id);
+                if (task != null) {
+                    tasks.add(task);
+                } else {
+                    missing.add(id);
+                }
+            }
+            return new Lookup(tasks, missing);
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.config.JpaStorage;
+import com.kiosite.kiositetest.datasource.DataSourceRouting;
+import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.service.TaskExistenceFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter implementation of {@link TaskExistenceFilter}.
+ * <p>
+ * The filter is seeded once the application is ready and rebuilt periodically so that
+ * ids of deleted tasks eventually stop producing false positives. Until the first build
+ * completes every id is reported as possibly existing.
+ * <p>
+ * While a rebuild is in progress, new ids are added both to the live filter and to the
+ * one being built, so ids committed during the rebuild are never lost.
+ */
+@Slf4j
+@Service
+@JpaStorage
+public class BloomTaskExistenceFilter implements TaskExistenceFilter {
+
+    private final TaskRepository taskRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile Bits current;
+    private volatile Bits building;
+
+    public BloomTaskExistenceFilter(TaskRepository taskRepository,
+                                    @Value("${tasks.existence-filter.enabled:true}") boolean enabled,
+                                    @Value("${tasks.existence-filter.expected-insertions:1000000}") long expectedInsertions,
+                                    @Value("${tasks.existence-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.taskRepository = taskRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @Override
+    public boolean mightContain(UUID id) {
+        Bits bits = current;
+        return bits == null || bits.mightContain(id);
+    }
+
+    @Override
+    public void add(UUID id) {
+        // Read the filter being built before the live one: if no build is in progress yet,
+        // the id is already committed and will be picked up by the next build's query.
+        Bits next = building;
+        Bits live = current;
+        if (next != null) {
+            next.put(id);
+        }
+        if (live != null) {
+            live.put(id);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${tasks.existence-filter.rebuild-interval:PT10M}",
+            fixedDelayString = "${tasks.existence-filter.rebuild-interval:PT10M}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // A replica could miss recently created tasks, which would then be reported as absent.
+            Bits bits = DataSourceRouting.onPrimary(() -> {
+                Bits next = new Bits(Math.max(expectedInsertions, taskRepository.count() * 2), falsePositiveRate);
+                building = next;
+                try (Stream<UUID> ids = taskRepository.streamAllIds()) {
+                    ids.forEach(next::put);
+                }
+                return next;
+            });
+            current = bits;
+            log.debug("Task existence filter rebuilt with {} bits and {} hash functions", bits.numBits, bits.numHashes);
+        } catch (RuntimeException ex) {
+            log.warn("Could not rebuild task existence filter, keeping the previous one", ex);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Fixed-size bit set addressed with double hashing over the two halves of the UUID.
+     */
+    static final class Bits {
+        private final AtomicLongArray words;
+        private final long numBits;
+        private final int numHashes;
+
+        Bits(long expectedInsertions, double falsePositiveRate) {
+            long bits = (long) (-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.numBits = wordCount * 64L;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        }
+
+        void put(UUID id) {
+            long h1 = mix(id.getMostSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value = words.get(word);
+                while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                    value = words.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(UUID id) {
+            long h1 = mix(id.getMostSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
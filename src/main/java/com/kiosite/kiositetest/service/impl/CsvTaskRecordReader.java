@@ -0,0 +1,245 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+import com.kiosite.kiositetest.entity.Status;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Reads RFC 4180 CSV with a header row.
+ * <p>
+ * The header names the {@code title}, {@code description}, {@code status}, {@code priority}
+ * and {@code due_at} columns in any order and case; other columns are ignored. Due dates are
+ * ISO-8601 local date-times. Quoted fields may contain commas, doubled
+ * quotes and line breaks. Empty lines are skipped and not counted as records, and empty
+ * fields are read as {@code null}.
+ * <p>
+ * At most {@code maxRecordLength} characters of a record are kept. A longer record is
+ * rejected; the rest of it is still parsed, without being kept, so that reading resumes at
+ * the line break ending it.
+ */
+final class CsvTaskRecordReader implements TaskRecordReader {
+
+    private static final String VALID_STATUSES = Arrays.stream(Status.values())
+            .map(Status::name)
+            .collect(Collectors.joining(", "));
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private int titleColumn = -1;
+    private int descriptionColumn = -1;
+    private int statusColumn = -1;
+    private int priorityColumn = -1;
+    private int dueAtColumn = -1;
+    private boolean headerRead;
+    private int recordLength;
+    private int fieldLength;
+    private boolean truncated;
+    private long row;
+
+    CsvTaskRecordReader(InputStream input, int maxRecordLength) {
+        this.reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public TaskRecord next() throws IOException {
+        if (!headerRead) {
+            readHeader();
+        }
+        if (!readLine()) {
+            return null;
+        }
+
+        row++;
+        if (truncated) {
+            return new TaskRecord(row, null, "Record is longer than " + maxRecordLength + " characters");
+        }
+        TaskRequestDTO task = new TaskRequestDTO(column(titleColumn), column(descriptionColumn), null, null, null);
+        String status = column(statusColumn);
+        if (status != null) {
+            try {
+                task.setStatus(Status.valueOf(status.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                return new TaskRecord(row, null, "Invalid status value '" + status + "'. Must be one of: " + VALID_STATUSES);
+            }
+        }
+        String priority = column(priorityColumn);
+        if (priority != null) {
+            try {
+                task.setPriority(Integer.valueOf(priority.trim()));
+            } catch (NumberFormatException ex) {
+                return new TaskRecord(row, null, "Invalid priority value '" + priority + "'");
+            }
+        }
+        String dueAt = column(dueAtColumn);
+        if (dueAt != null) {
+            try {
+                task.setDueAt(LocalDateTime.parse(dueAt.trim()));
+            } catch (DateTimeParseException ex) {
+                return new TaskRecord(row, null, "Invalid due date '" + dueAt + "'. Expected e.g. 2024-01-31T17:00:00");
+            }
+        }
+        return new TaskRecord(row, task, null);
+    }
+
+    private void readHeader() throws IOException {
+        headerRead = true;
+        if (!readLine()) {
+            throw new IllegalArgumentException("CSV input is empty, expected a header row");
+        }
+        if (truncated) {
+            throw new IllegalArgumentException("CSV header is longer than " + maxRecordLength + " characters");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "title" -> titleColumn = i;
+                case "description" -> descriptionColumn = i;
+                case "status" -> statusColumn = i;
+                case "priority" -> priorityColumn = i;
+                case "due_at", "dueat" -> dueAtColumn = i;
+                default -> {
+                    // Extra columns from the source system are ignored.
+                }
+            }
+        }
+        if (titleColumn < 0) {
+            throw new IllegalArgumentException("CSV header must include a title column");
+        }
+    }
+
+    /**
+     * Reads the next non-empty line into {@link #fields}, setting {@link #truncated} if it
+     * had to be cut.
+     *
+     * @return {@code false} at the end of the input
+     */
+    private boolean readLine() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        truncated = false;
+        recordLength = 0;
+        fieldLength = 0;
+        boolean quoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c != '"') {
+                    append(c);
+                    continue;
+                }
+                if (peek() == '"') {
+                    read();
+                    append('"');
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && fieldLength == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                if (fits()) {
+                    fields.add(field.toString());
+                }
+                field.setLength(0);
+                fieldLength = 0;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (fields.isEmpty() && field.isEmpty() && !truncated) {
+                    any = false;
+                    continue;
+                }
+                break;
+            } else {
+                append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field after record " + row);
+        }
+        if (!any) {
+            return false;
+        }
+        if (!truncated) {
+            fields.add(field.toString());
+        }
+        return true;
+    }
+
+    /**
+     * Adds a character to the current field, unless the record has grown too long.
+     */
+    private void append(int c) {
+        fieldLength++;
+        if (fits()) {
+            field.append((char) c);
+        }
+    }
+
+    /**
+     * Counts a character of the record; once there are too many, drops what was kept so far
+     * and only parses the record on to its end.
+     *
+     * @return Whether the character is to be kept
+     */
+    private boolean fits() {
+        if (!truncated && ++recordLength > maxRecordLength) {
+            truncated = true;
+            fields.clear();
+            field.setLength(0);
+        }
+        return !truncated;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+
+    private String column(int index) {
+        if (index < 0 || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+}
@@ -0,0 +1,153 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.exception.IdempotencyKeyInProgressException;
+import com.kiosite.kiositetest.exception.IdempotencyKeyReuseException;
+import com.kiosite.kiositetest.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * {@link IdempotencyService} keeping results in a bounded in-memory map.
+ * <p>
+ * Entries are kept in insertion order, so expired entries are always at the head of the
+ * map and are evicted on every access. When the map exceeds its capacity the oldest
+ * completed entries are dropped even if they have not expired yet; executions still in
+ * progress are never dropped, so the map can briefly hold more than {@code max-entries}.
+ * <p>
+ * Concurrent duplicates wait at most {@code tasks.idempotency.wait-timeout} for the first
+ * execution, then fail with {@link IdempotencyKeyInProgressException}.
+ */
+@Service
+public class InMemoryIdempotencyService implements IdempotencyService {
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Duration waitTimeout;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public InMemoryIdempotencyService(@Value("${tasks.idempotency.ttl:PT24H}") Duration ttl,
+                                      @Value("${tasks.idempotency.max-entries:10000}") int maxEntries,
+                                      @Value("${tasks.idempotency.wait-timeout:PT10S}") Duration waitTimeout) {
+        this(ttl, maxEntries, waitTimeout, System::nanoTime);
+    }
+
+    InMemoryIdempotencyService(Duration ttl, int maxEntries, Duration waitTimeout, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.waitTimeout = waitTimeout;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String principal, String key, Object fingerprint, Supplier<T> action) {
+        Key entryKey = new Key(principal, key);
+        Entry entry;
+        boolean owner = false;
+
+        synchronized (entries) {
+            long now = nanoClock.getAsLong();
+            evictExpired(now);
+            entry = entries.get(entryKey);
+            if (entry == null) {
+                entry = new Entry(fingerprint, now + ttlNanos);
+                entries.put(entryKey, entry);
+                owner = true;
+                evictOverflow();
+            }
+        }
+
+        if (!Objects.equals(entry.fingerprint, fingerprint)) {
+            throw new IdempotencyKeyReuseException("Idempotency key '" + key + "' was already used with a different request");
+        }
+
+        if (!owner) {
+            return new Result<>((T) await(key, entry.result), true);
+        }
+
+        try {
+            T value = action.get();
+            entry.result.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error ex) {
+            synchronized (entries) {
+                entries.remove(entryKey, entry);
+            }
+            entry.result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * @return Number of stored entries, including executions still in progress
+     */
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext() && it.next().expiresAt - now <= 0) {
+            it.remove();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            if (it.next().result.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private Object await(String key, CompletableFuture<Object> result) {
+        try {
+            return result.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new IdempotencyKeyInProgressException("A request with idempotency key '" + key + "' is still in progress; retry later");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException("Interrupted while waiting for the request with idempotency key '" + key + "'");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private record Key(String principal, String key) {
+    }
+
+    private static final class Entry {
+        private final Object fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(Object fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.config.JpaStorage;
+import com.kiosite.kiositetest.datasource.DataSourceRouting;
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.service.TaskReadModel;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * {@link TaskReadModel} holding detached copies of every task in memory.
+ * <p>
+ * Tasks are indexed by id and kept in {@code createdAt} order, both globally and per
+ * status, so list pages are served by walking a sorted set. All structures are guarded by
+ * a single read-write lock: reads vastly outnumber writes, and each write only touches a
+ * handful of entries.
+ * <p>
+ * The view only sees writes made through this application instance. A periodic check
+ * compares its per-status counts with the database and reloads it after two consecutive
+ * mismatches. Both loads and checks read from the primary database, never from a replica.
+ */
+@Slf4j
+@Service
+@JpaStorage
+public class InMemoryTaskReadModel implements TaskReadModel {
+
+    private static final Comparator<Task> CREATED_ORDER = Comparator
+            .comparing(Task::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Task::getId);
+    private static final String CREATED_AT = "createdAt";
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Task> byId = new HashMap<>();
+    private final NavigableSet<Task> all = new TreeSet<>(CREATED_ORDER);
+    private final Map<Status, NavigableSet<Task>> byStatus = new EnumMap<>(Status.class);
+    private final Set<UUID> removedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private boolean mismatchSeen;
+
+    private volatile boolean ready;
+
+    public InMemoryTaskReadModel(TaskRepository taskRepository,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${tasks.read-model.enabled:false}") boolean enabled) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        for (Status status : Status.values()) {
+            byStatus.put(status, new TreeSet<>(CREATED_ORDER));
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Optional<Task> findById(UUID id) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byId.get(id)).map(InMemoryTaskReadModel::copyOf);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Page<Task>> findAll(Status status, Pageable pageable) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Sort.Order order = createdAtOrder(pageable.getSort());
+        if (order == null) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            NavigableSet<Task> tasks = status != null ? byStatus.get(status) : all;
+            Iterator<Task> it = order.isAscending() ? tasks.iterator() : tasks.descendingIterator();
+            List<Task> content = new ArrayList<>(pageable.isPaged() ? pageable.getPageSize() : tasks.size());
+            long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+            while (it.hasNext() && skip-- > 0) {
+                it.next();
+            }
+            while (it.hasNext() && (pageable.isUnpaged() || content.size() < pageable.getPageSize())) {
+                content.add(copyOf(it.next()));
+            }
+            return Optional.of(new PageImpl<>(content, pageable, tasks.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Task task) {
+        if (!enabled) {
+            return;
+        }
+        Task copy = copyOf(task);
+        lock.writeLock().lock();
+        try {
+            put(copy);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<UUID> ids) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (UUID id : ids) {
+                remove(id);
+                if (rebuilding) {
+                    removedDuringRebuild.add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the view from the database.
+     * <p>
+     * Writes committed while loading are applied as they arrive; a loaded row only
+     * replaces an entry if it is at least as recent, and rows deleted during the load are
+     * skipped. Reads fall back to the database until the load completes.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            byId.clear();
+            all.clear();
+            byStatus.values().forEach(Set::clear);
+            removedDuringRebuild.clear();
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            DataSourceRouting.onPrimary(() -> transactionTemplate.executeWithoutResult(status -> load()));
+            lock.writeLock().lock();
+            try {
+                ready = true;
+                mismatchSeen = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Task read model loaded with {} tasks", byId.size());
+        } catch (RuntimeException ex) {
+            log.warn("Could not load task read model, serving reads from the database", ex);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                removedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Compares the per-status task counts of the view with the database and reloads the
+     * view when they differ on two consecutive checks.
+     */
+    @Scheduled(initialDelayString = "${tasks.read-model.verify-interval:PT5M}",
+            fixedDelayString = "${tasks.read-model.verify-interval:PT5M}")
+    public void verify() {
+        if (!ready) {
+            return;
+        }
+        Map<Status, Long> expected = new EnumMap<>(Status.class);
+        DataSourceRouting.onPrimary(() -> transactionTemplate.executeWithoutResult(tx -> {
+            for (Status status : Status.values()) {
+                expected.put(status, taskRepository.countByStatus(status));
+            }
+        }));
+
+        boolean consistent;
+        lock.readLock().lock();
+        try {
+            consistent = expected.entrySet().stream()
+                    .allMatch(e -> byStatus.get(e.getKey()).size() == e.getValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (consistent) {
+            mismatchSeen = false;
+        } else if (!mismatchSeen) {
+            mismatchSeen = true;
+        } else {
+            log.warn("Task read model differs from the database, reloading it");
+            rebuild();
+        }
+    }
+
+    private void load() {
+        List<Task> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        try (Stream<Task> tasks = taskRepository.streamAll()) {
+            tasks.forEach(task -> {
+                batch.add(copyOf(task));
+                if (batch.size() == LOAD_BATCH_SIZE) {
+                    putLoaded(batch);
+                    batch.clear();
+                    entityManager.clear();
+                }
+            });
+        }
+        putLoaded(batch);
+    }
+
+    private void putLoaded(List<Task> batch) {
+        lock.writeLock().lock();
+        try {
+            for (Task task : batch) {
+                if (!removedDuringRebuild.contains(task.getId())) {
+                    put(task);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Task task) {
+        Task existing = byId.get(task.getId());
+        if (existing != null) {
+            if (isOlder(task, existing)) {
+                return;
+            }
+            remove(existing.getId());
+        }
+        byId.put(task.getId(), task);
+        all.add(task);
+        if (task.getStatus() != null) {
+            byStatus.get(task.getStatus()).add(task);
+        }
+    }
+
+    private void remove(UUID id) {
+        Task existing = byId.remove(id);
+        if (existing != null) {
+            all.remove(existing);
+            if (existing.getStatus() != null) {
+                byStatus.get(existing.getStatus()).remove(existing);
+            }
+        }
+    }
+
+    private static boolean isOlder(Task task, Task existing) {
+        return task.getUpdatedAt() != null && existing.getUpdatedAt() != null
+                && task.getUpdatedAt().isBefore(existing.getUpdatedAt());
+    }
+
+    private static Sort.Order createdAtOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return Sort.Order.asc(CREATED_AT);
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() == 1 && orders.get(0).getProperty().equals(CREATED_AT)) {
+            return orders.get(0);
+        }
+        return null;
+    }
+
+    /**
+     * Copies a task, truncating timestamps to the microsecond precision of the database
+     * columns so that cached and loaded versions of a task compare and render alike.
+     */
+    private static Task copyOf(Task task) {
+        Task copy = Task.builder()
+                .id(task.getId())
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .status(task.getStatus())
+                .priority(task.getPriority())
+                .dueAt(truncate(task.getDueAt()))
+                .build();
+        copy.setCreatedBy(task.getCreatedBy());
+        copy.setCreatedAt(truncate(task.getCreatedAt()));
+        copy.setModifiedBy(task.getModifiedBy());
+        copy.setUpdatedAt(truncate(task.getUpdatedAt()));
+        return copy;
+    }
+
+    private static LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.truncatedTo(ChronoUnit.MICROS) : null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads one JSON task object per line. Blank lines are skipped and not counted as records.
+ * <p>
+ * At most {@code maxRecordLength} characters of a line are kept. A longer line is rejected
+ * and skipped up to its line break.
+ */
+final class NdjsonTaskRecordReader implements TaskRecordReader {
+
+    private final Reader reader;
+    private final ObjectReader objectReader;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private final StringBuilder line = new StringBuilder();
+    private boolean truncated;
+    private long row;
+
+    NdjsonTaskRecordReader(InputStream input, ObjectMapper objectMapper, int maxRecordLength) {
+        this.reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        this.objectReader = objectMapper.readerFor(TaskRequestDTO.class);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public TaskRecord next() throws IOException {
+        do {
+            if (!readLine()) {
+                return null;
+            }
+        } while (!truncated && line.toString().isBlank());
+
+        row++;
+        if (truncated) {
+            return new TaskRecord(row, null, "Record is longer than " + maxRecordLength + " characters");
+        }
+        try {
+            return new TaskRecord(row, objectReader.readValue(line.toString()), null);
+        } catch (JsonProcessingException ex) {
+            return new TaskRecord(row, null, "Invalid task: " + ex.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Reads the next line into {@link #line}, without its terminator, setting
+     * {@link #truncated} if it had to be cut.
+     *
+     * @return {@code false} at the end of the input
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        truncated = false;
+        int c = read();
+        if (c == -1) {
+            return false;
+        }
+        for (; c != -1 && c != '\n'; c = read()) {
+            if (truncated) {
+                continue;
+            }
+            if (line.length() == maxRecordLength) {
+                truncated = true;
+                line.setLength(0);
+            } else {
+                line.append((char) c);
+            }
+        }
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
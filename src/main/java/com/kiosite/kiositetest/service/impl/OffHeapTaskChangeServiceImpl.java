@@ -0,0 +1,110 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.config.OffHeapStorage;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.CursorExpiredException;
+import com.kiosite.kiositetest.repository.offheap.OffHeapTaskStore;
+import com.kiosite.kiositetest.service.TaskChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Implementation of {@link TaskChangeService} for the {@link OffHeapTaskStore}.
+ * <p>
+ * Tombstones are recorded by {@link OffHeapTaskServiceImpl#deleteTask} in an in-memory
+ * sorted set and are not part of the store snapshots, so cursors from before this process
+ * started are treated as expired.
+ */
+@Slf4j
+@Service
+@OffHeapStorage
+public class OffHeapTaskChangeServiceImpl implements TaskChangeService {
+
+    private final OffHeapTaskStore taskStore;
+    private final Duration settleTime;
+    private final Duration tombstoneRetention;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final NavigableSet<ChangeCursor> tombstones = new ConcurrentSkipListSet<>();
+
+    public OffHeapTaskChangeServiceImpl(OffHeapTaskStore taskStore,
+                                        @Value("${tasks.changes.settle-time:PT5S}") Duration settleTime,
+                                        @Value("${tasks.changes.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.taskStore = taskStore;
+        this.settleTime = settleTime;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Records the removal of a task for the changes feed.
+     *
+     * @param id        Id of the removed task
+     * @param deletedAt Removal time
+     */
+    public void recordDeletion(UUID id, LocalDateTime deletedAt) {
+        tombstones.add(new ChangeCursor(deletedAt, id));
+    }
+
+    /**
+     * Retrieves the changes after a cursor. Tasks are found by scanning the store; see
+     * {@link OffHeapTaskStore#findChangedAfter}.
+     * <p>
+     * No request can have written before this service was created, so the settle time never
+     * holds back changes past the process start.
+     *
+     * @param since Position of the last change the client has, or {@code null} for all tasks
+     * @param limit Maximum number of changes to return
+     * @return The changes and the cursor to continue from
+     * @throws CursorExpiredException if the cursor is older than the tombstone retention or
+     *                                than the process start
+     */
+    @Override
+    public Changes getChanges(ChangeCursor since, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = later(now.minus(tombstoneRetention), startedAt);
+        if (since != null && since.at().isBefore(horizon)) {
+            throw new CursorExpiredException("Change cursor is older than the retained tombstones; sync all tasks again");
+        }
+        ChangeCursor from = since != null ? since : ChangeCursor.START;
+        LocalDateTime until = later(now.minus(settleTime), startedAt);
+        List<Task> tasks = taskStore.findChangedAfter(from.at(), from.id(), until, limit + 1);
+        List<ChangeCursor> deleted = tombstones.subSet(from, false, ChangeCursor.after(until), true).stream()
+                .limit(limit + 1)
+                .toList();
+        return Changes.of(from, until, tasks, deleted, limit);
+    }
+
+    /**
+     * Scheduled entry point for {@link #purgeExpiredTombstones()}.
+     */
+    @Scheduled(initialDelayString = "${tasks.changes.purge-interval:PT1H}", fixedDelayString = "${tasks.changes.purge-interval:PT1H}")
+    public void purge() {
+        int purged = purgeExpiredTombstones();
+        if (purged > 0) {
+            log.info("Purged {} expired task tombstones", purged);
+        }
+    }
+
+    @Override
+    public int purgeExpiredTombstones() {
+        NavigableSet<ChangeCursor> expired = tombstones.headSet(
+                new ChangeCursor(LocalDateTime.now().minus(tombstoneRetention), new UUID(0, 0)), false);
+        int purged = 0;
+        while (expired.pollFirst() != null) {
+            purged++;
+        }
+        return purged;
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
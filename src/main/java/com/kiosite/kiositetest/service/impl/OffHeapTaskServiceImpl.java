@@ -0,0 +1,160 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.config.OffHeapStorage;
+import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+import com.kiosite.kiositetest.entity.ArchivedTask;
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.InvalidStatusException;
+import com.kiosite.kiositetest.exception.NotFoundException;
+import com.kiosite.kiositetest.repository.offheap.OffHeapTaskStore;
+import com.kiosite.kiositetest.service.TaskService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link TaskService} backed by the {@link OffHeapTaskStore} instead of
+ * the database. Enabled with the {@code offheap} profile.
+ * <p>
+ * Ids and audit fields are assigned here, since there is no JPA auditing in this mode.
+ * Updates and deletes are serialized so that the status rules are checked against the
+ * latest stored version of the task.
+ */
+@Service
+@RequiredArgsConstructor
+@OffHeapStorage
+public class OffHeapTaskServiceImpl implements TaskService {
+
+    private final OffHeapTaskStore taskStore;
+    private final AuditorAware<String> auditorAware;
+    private final OffHeapTaskChangeServiceImpl taskChangeService;
+
+    /**
+     * Create a new task with the given data.
+     * <p>
+     * If the status is not provided, defaults to {@link Status#PENDING}.
+     *
+     * @param taskRequestDTO DTO containing title, description, and optional status
+     * @return The created {@link Task}
+     */
+    @Override
+    public Task createTask(TaskRequestDTO taskRequestDTO) {
+        String auditor = currentAuditor();
+        LocalDateTime now = LocalDateTime.now();
+        Task task = Task.builder()
+                .id(UUID.randomUUID())
+                .title(taskRequestDTO.getTitle())
+                .description(taskRequestDTO.getDescription())
+                .status(taskRequestDTO.getStatus() != null ? taskRequestDTO.getStatus() : Status.PENDING)
+                .priority(taskRequestDTO.getPriority() != null ? taskRequestDTO.getPriority() : Task.DEFAULT_PRIORITY)
+                .dueAt(taskRequestDTO.getDueAt())
+                .build();
+        task.setCreatedBy(auditor);
+        task.setCreatedAt(now);
+        task.setModifiedBy(auditor);
+        task.setUpdatedAt(now);
+        taskStore.insert(task);
+        return task;
+    }
+
+    @Override
+    public Page<Task> getAllTasks(Status status, Pageable pageable) {
+        return taskStore.findAll(status, pageable);
+    }
+
+    /**
+     * Archiving needs the SQL archive table, so there are never archived tasks in this mode.
+     *
+     * @return An empty page
+     */
+    @Override
+    public Page<ArchivedTask> getArchivedTasks(Status status, Pageable pageable) {
+        return Page.empty(pageable);
+    }
+
+    @Override
+    public Task getTaskById(UUID id) {
+        return taskStore.get(id)
+                .orElseThrow(() -> new NotFoundException("Task not found with id: " + id));
+    }
+
+    @Override
+    public Lookup getTasksByIds(Collection<UUID> ids) {
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        Map<UUID, Task> found = new HashMap<>();
+        requested.forEach(id -> taskStore.get(id).ifPresent(task -> found.put(id, task)));
+        return Lookup.of(requested, found);
+    }
+
+    /**
+     * Retrieves the most urgent pending tasks. The store has no secondary index, so this scans
+     * all tasks while keeping the best {@code limit} in a bounded heap.
+     *
+     * @param limit Maximum number of tasks to return
+     * @return Up to {@code limit} pending tasks, most urgent first
+     */
+    @Override
+    public List<Task> getNextTasks(int limit) {
+        Sort sort = Sort.by(Sort.Order.asc("priority"), Sort.Order.asc("dueAt").nullsLast());
+        return taskStore.findAll(Status.PENDING, PageRequest.of(0, limit, sort)).getContent();
+    }
+
+    /**
+     * Updates an existing task with new data, applying the same business rules as
+     * {@link TaskServiceImpl#updateTask}.
+     *
+     * @param id             UUID of the task to update
+     * @param taskRequestDTO DTO containing updated title, description, and optional status
+     * @return The updated {@link Task}
+     * @throws NotFoundException      if no task exists with the given id
+     * @throws InvalidStatusException if attempting an invalid status transition
+     */
+    @Override
+    public synchronized Task updateTask(UUID id, TaskRequestDTO taskRequestDTO) throws InvalidStatusException {
+        Task task = getTaskById(id);
+
+        task.setTitle(taskRequestDTO.getTitle());
+        task.setDescription(taskRequestDTO.getDescription());
+        task.setDueAt(taskRequestDTO.getDueAt());
+
+        if (task.getStatus() == Status.IN_PROGRESS && taskRequestDTO.getStatus() == Status.DONE) {
+            throw new InvalidStatusException("Cannot mark task as DONE while it is IN_PROGRESS");
+        }
+
+        if (taskRequestDTO.getStatus() != null) {
+            task.setStatus(taskRequestDTO.getStatus());
+        }
+        task.setPriority(taskRequestDTO.getPriority() != null ? taskRequestDTO.getPriority() : Task.DEFAULT_PRIORITY);
+
+        task.setModifiedBy(currentAuditor());
+        task.setUpdatedAt(LocalDateTime.now());
+        taskStore.replace(task);
+        return task;
+    }
+
+    @Override
+    public synchronized void deleteTask(UUID id) {
+        if (!taskStore.remove(id)) {
+            throw new NotFoundException("Task not found with id: " + id);
+        }
+        taskChangeService.recordDeletion(id, LocalDateTime.now());
+    }
+
+    private String currentAuditor() {
+        return auditorAware.getCurrentAuditor().orElse(null);
+    }
+}
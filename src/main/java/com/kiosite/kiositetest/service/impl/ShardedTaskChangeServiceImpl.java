@@ -0,0 +1,84 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.config.ShardedStorage;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.CursorExpiredException;
+import com.kiosite.kiositetest.repository.sharded.ShardedTaskStore;
+import com.kiosite.kiositetest.service.TaskChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Implementation of {@link TaskChangeService} for the {@link ShardedTaskStore}.
+ * <p>
+ * Every shard keeps the tombstones of its own tasks, written by
+ * {@link ShardedTaskServiceImpl#deleteTask} in the same transaction as the removal. Changes
+ * are read from all shards and merged in position order; the settle time also covers writes
+ * that a shard commits slightly later than another.
+ */
+@Slf4j
+@Service
+@ShardedStorage
+public class ShardedTaskChangeServiceImpl implements TaskChangeService {
+
+    private final ShardedTaskStore taskStore;
+    private final Duration settleTime;
+    private final Duration tombstoneRetention;
+
+    public ShardedTaskChangeServiceImpl(ShardedTaskStore taskStore,
+                                        @Value("${tasks.changes.settle-time:PT5S}") Duration settleTime,
+                                        @Value("${tasks.changes.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.taskStore = taskStore;
+        this.settleTime = settleTime;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Retrieves the changes after a cursor, reading at most {@code limit + 1} index entries
+     * from each table of every shard.
+     *
+     * @param since Position of the last change the client has, or {@code null} for all tasks
+     * @param limit Maximum number of changes to return
+     * @return The changes and the cursor to continue from
+     * @throws CursorExpiredException if the cursor is older than the tombstone retention
+     */
+    @Override
+    public Changes getChanges(ChangeCursor since, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        if (since != null && since.at().isBefore(now.minus(tombstoneRetention))) {
+            throw new CursorExpiredException("Change cursor is older than the retained tombstones; sync all tasks again");
+        }
+        ChangeCursor from = since != null ? since : ChangeCursor.START;
+        // Timestamps are stored with microsecond precision
+        LocalDateTime until = now.minus(settleTime).truncatedTo(ChronoUnit.MICROS);
+        List<Task> tasks = taskStore.findChangedAfter(from.at(), from.id(), until, limit + 1);
+        List<ChangeCursor> tombstones = taskStore.findDeletedAfter(from.at(), from.id(), until, limit + 1)
+                .stream()
+                .map(tombstone -> new ChangeCursor(tombstone.getDeletedAt(), tombstone.getId()))
+                .toList();
+        return Changes.of(from, until, tasks, tombstones, limit);
+    }
+
+    /**
+     * Scheduled entry point for {@link #purgeExpiredTombstones()}.
+     */
+    @Scheduled(initialDelayString = "${tasks.changes.purge-interval:PT1H}", fixedDelayString = "${tasks.changes.purge-interval:PT1H}")
+    public void purge() {
+        int purged = purgeExpiredTombstones();
+        if (purged > 0) {
+            log.info("Purged {} expired task tombstones", purged);
+        }
+    }
+
+    @Override
+    public int purgeExpiredTombstones() {
+        return taskStore.deleteTombstonesBefore(LocalDateTime.now().minus(tombstoneRetention));
+    }
+}
@@ -0,0 +1,164 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.config.ShardedStorage;
+import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+import com.kiosite.kiositetest.entity.ArchivedTask;
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.InvalidStatusException;
+import com.kiosite.kiositetest.exception.NotFoundException;
+import com.kiosite.kiositetest.repository.sharded.ShardedTaskStore;
+import com.kiosite.kiositetest.service.TaskService;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link TaskService} backed by the {@link ShardedTaskStore}. Enabled with
+ * the {@code sharded} profile.
+ * <p>
+ * Ids and audit fields are assigned here, since there is no JPA auditing in this mode.
+ * Updates take no lock in the application: the status rules are checked by the conditional
+ * {@code UPDATE} of {@link ShardedTaskStore#replace}, against the stored version of the task.
+ */
+@Service
+@ShardedStorage
+public class ShardedTaskServiceImpl implements TaskService {
+
+    private final ShardedTaskStore taskStore;
+    private final AuditorAware<String> auditorAware;
+
+    public ShardedTaskServiceImpl(ShardedTaskStore taskStore, AuditorAware<String> auditorAware) {
+        this.taskStore = taskStore;
+        this.auditorAware = auditorAware;
+    }
+
+    /**
+     * Create a new task with the given data.
+     * <p>
+     * If the status is not provided, defaults to {@link Status#PENDING}.
+     *
+     * @param taskRequestDTO DTO containing title, description, and optional status
+     * @return The created {@link Task}
+     */
+    @Override
+    public Task createTask(TaskRequestDTO taskRequestDTO) {
+        String auditor = currentAuditor();
+        LocalDateTime now = now();
+        Task task = Task.builder()
+                .id(UUID.randomUUID())
+                .title(taskRequestDTO.getTitle())
+                .description(taskRequestDTO.getDescription())
+                .status(taskRequestDTO.getStatus() != null ? taskRequestDTO.getStatus() : Status.PENDING)
+                .priority(taskRequestDTO.getPriority() != null ? taskRequestDTO.getPriority() : Task.DEFAULT_PRIORITY)
+                .dueAt(taskRequestDTO.getDueAt())
+                .build();
+        task.setCreatedBy(auditor);
+        task.setCreatedAt(now);
+        task.setModifiedBy(auditor);
+        task.setUpdatedAt(now);
+        taskStore.insert(task);
+        return task;
+    }
+
+    /**
+     * Retrieves a page of tasks, merged from the first {@code offset + size} tasks of every
+     * shard; see {@link ShardedTaskStore#findAll}.
+     */
+    @Override
+    public Page<Task> getAllTasks(Status status, Pageable pageable) {
+        return taskStore.findAll(status, pageable);
+    }
+
+    /**
+     * Archiving needs the JPA archive table, so there are never archived tasks in this mode.
+     *
+     * @return An empty page
+     */
+    @Override
+    public Page<ArchivedTask> getArchivedTasks(Status status, Pageable pageable) {
+        return Page.empty(pageable);
+    }
+
+    @Override
+    public Task getTaskById(UUID id) {
+        return taskStore.get(id)
+                .orElseThrow(() -> new NotFoundException("Task not found with id: " + id));
+    }
+
+    @Override
+    public Lookup getTasksByIds(Collection<UUID> ids) {
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        return Lookup.of(requested, taskStore.getAll(requested));
+    }
+
+    @Override
+    public List<Task> getNextTasks(int limit) {
+        return taskStore.findNext(Status.PENDING, limit);
+    }
+
+    /**
+     * Updates an existing task with new data, applying the same business rules as
+     * {@link TaskServiceImpl#updateTask}.
+     *
+     * @param id             UUID of the task to update
+     * @param taskRequestDTO DTO containing updated title, description, and optional status
+     * @return The updated {@link Task}
+     * @throws NotFoundException      if no task exists with the given id
+     * @throws InvalidStatusException if attempting an invalid status transition
+     */
+    @Override
+    public Task updateTask(UUID id, TaskRequestDTO taskRequestDTO) throws InvalidStatusException {
+        Task task = Task.builder()
+                .id(id)
+                .title(taskRequestDTO.getTitle())
+                .description(taskRequestDTO.getDescription())
+                .status(taskRequestDTO.getStatus())
+                .priority(taskRequestDTO.getPriority() != null ? taskRequestDTO.getPriority() : Task.DEFAULT_PRIORITY)
+                .dueAt(taskRequestDTO.getDueAt())
+                .build();
+        task.setModifiedBy(currentAuditor());
+        task.setUpdatedAt(now());
+
+        // A task IN_PROGRESS cannot be marked DONE; the shard checks this in the update itself
+        Status unlessStatus = taskRequestDTO.getStatus() == Status.DONE ? Status.IN_PROGRESS : null;
+        return taskStore.replace(task, unlessStatus).orElseThrow(() -> taskStore.get(id).isPresent()
+                ? new InvalidStatusException("Cannot mark task as DONE while it is IN_PROGRESS")
+                : new NotFoundException("Task not found with id: " + id));
+    }
+
+    /**
+     * Deletes a task, recording its tombstone for the changes feed in the same shard
+     * transaction.
+     *
+     * @param id UUID of the task to delete
+     * @throws NotFoundException if no task exists with the given id
+     */
+    @Override
+    public void deleteTask(UUID id) {
+        if (!taskStore.remove(id, now())) {
+            throw new NotFoundException("Task not found with id: " + id);
+        }
+    }
+
+    private String currentAuditor() {
+        return auditorAware.getCurrentAuditor().orElse(null);
+    }
+
+    /**
+     * Timestamps are stored with microsecond precision; truncating here keeps the returned
+     * task equal to the stored one.
+     */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,178 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.config.JpaStorage;
+import com.kiosite.kiositetest.entity.ArchivedTask;
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.entity.TaskTombstone;
+import com.kiosite.kiositetest.repository.ArchivedTaskRepository;
+import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.repository.TaskTombstoneRepository;
+import com.kiosite.kiositetest.service.TaskArchiveService;
+import com.kiosite.kiositetest.service.TaskReadModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.kiosite.kiositetest.service.impl.TransactionHooks.afterCommit;
+
+/**
+ * Implementation of {@link TaskArchiveService} that sweeps {@link Status#DONE} tasks into
+ * the {@link ArchivedTask} table on a schedule.
+ * <p>
+ * Tasks are moved in batches, each in its own transaction, with a pause between batches
+ * and a cap on batches per run so that the sweeper never holds locks for long or competes
+ * with foreground requests for the whole database.
+ */
+@Slf4j
+@Service
+@JpaStorage
+public class TaskArchiveServiceImpl implements TaskArchiveService {
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TaskReadModel taskReadModel;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pauseBetweenBatches;
+    private final Supplier<LocalDateTime> clock;
+
+    @Autowired
+    public TaskArchiveServiceImpl(TaskRepository taskRepository,
+                                  ArchivedTaskRepository archivedTaskRepository,
+                                  TaskTombstoneRepository taskTombstoneRepository,
+                                  TaskReadModel taskReadModel,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${tasks.archiving.enabled:true}") boolean enabled,
+                                  @Value("${tasks.archiving.min-age:P30D}") Duration minAge,
+                                  @Value("${tasks.archiving.batch-size:500}") int batchSize,
+                                  @Value("${tasks.archiving.max-batches-per-run:100}") int maxBatchesPerRun,
+                                  @Value("${tasks.archiving.pause-between-batches:PT0.2S}") Duration pauseBetweenBatches) {
+        this(taskRepository, archivedTaskRepository, taskTombstoneRepository, taskReadModel, transactionManager,
+                enabled, minAge, batchSize, maxBatchesPerRun, pauseBetweenBatches, LocalDateTime::now);
+    }
+
+    TaskArchiveServiceImpl(TaskRepository taskRepository,
+                           ArchivedTaskRepository archivedTaskRepository,
+                           TaskTombstoneRepository taskTombstoneRepository,
+                           TaskReadModel taskReadModel,
+                           PlatformTransactionManager transactionManager,
+                           boolean enabled,
+                           Duration minAge,
+                           int batchSize,
+                           int maxBatchesPerRun,
+                           Duration pauseBetweenBatches,
+                           Supplier<LocalDateTime> clock) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.taskReadModel = taskReadModel;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+        this.clock = clock;
+    }
+
+    /**
+     * Scheduled entry point; runs {@link #archiveCompletedTasks()} when archiving is enabled.
+     */
+    @Scheduled(initialDelayString = "${tasks.archiving.interval:PT1H}", fixedDelayString = "${tasks.archiving.interval:PT1H}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        int archived = archiveCompletedTasks();
+        if (archived > 0) {
+            log.info("Archived {} completed tasks", archived);
+        }
+    }
+
+    /**
+     * Archives completed tasks not updated within the configured minimum age.
+     * <p>
+     * Stops early when a batch comes back short, when the batch cap is reached, or when a
+     * task in the batch was modified concurrently; the remaining tasks are picked up by the
+     * next run.
+     * <p>
+     * The cutoff is fixed for the run, but each batch stamps its tombstones with the time of
+     * its own transaction: the changes feed hands out cursors up to the settle time before
+     * now, and a batch committing later than that behind such a cursor would never be seen
+     * by the clients holding it.
+     *
+     * @return Number of tasks archived
+     */
+    @Override
+    public int archiveCompletedTasks() {
+        LocalDateTime cutoff = clock.get().minus(minAge);
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int archived;
+            try {
+                archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            } catch (OptimisticLockingFailureException ex) {
+                log.debug("Stopping archiving run: {}", ex.getMessage());
+                break;
+            }
+            total += archived;
+            if (archived < batchSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Task> tasks = taskRepository.findByStatusAndUpdatedAtBefore(
+                Status.DONE, cutoff, PageRequest.of(0, batchSize, Sort.by("updatedAt")));
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime archivedAt = clock.get();
+
+        archivedTaskRepository.saveAll(tasks.stream().map(task -> ArchivedTask.fromTask(task, archivedAt)).toList());
+        List<UUID> ids = tasks.stream().map(Task::getId).toList();
+        int deleted = taskRepository.deleteByIdInAndStatusAndUpdatedAtBefore(ids, Status.DONE, cutoff);
+        if (deleted != tasks.size()) {
+            // Some tasks were updated or deleted after being read; roll back and let the next run retry.
+            throw new OptimisticLockingFailureException("Archiving batch changed concurrently");
+        }
+        // Archived tasks leave the task list, so the changes feed reports them as removed.
+        taskTombstoneRepository.saveAll(ids.stream().map(id -> new TaskTombstone(id, archivedAt)).toList());
+        afterCommit(() -> taskReadModel.removeAll(ids));
+        return deleted;
+    }
+
+    private boolean pause() {
+        if (pauseBetweenBatches.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatches.toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
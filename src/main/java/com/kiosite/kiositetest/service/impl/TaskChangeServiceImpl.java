@@ -0,0 +1,119 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.config.JpaStorage;
+import com.kiosite.kiositetest.datasource.DataSourceRouting;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.entity.TaskTombstone;
+import com.kiosite.kiositetest.exception.CursorExpiredException;
+import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.repository.TaskTombstoneRepository;
+import com.kiosite.kiositetest.service.TaskChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of {@link TaskChangeService} reading the {@link Task} and
+ * {@link TaskTombstone} tables through their {@code (timestamp, id)} indexes.
+ * <p>
+ * Tombstones are written by {@link TaskServiceImpl#deleteTask} and by the archiving sweeper
+ * in the same transaction as the removal, and purged on a schedule once older than
+ * {@code tasks.changes.tombstone-retention}.
+ */
+@Slf4j
+@Service
+@JpaStorage
+public class TaskChangeServiceImpl implements TaskChangeService {
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final Duration settleTime;
+    private final Duration tombstoneRetention;
+    private final Supplier<LocalDateTime> clock;
+
+    @Autowired
+    public TaskChangeServiceImpl(TaskRepository taskRepository,
+                                 TaskTombstoneRepository taskTombstoneRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${tasks.changes.settle-time:PT5S}") Duration settleTime,
+                                 @Value("${tasks.changes.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this(taskRepository, taskTombstoneRepository, transactionManager, settleTime, tombstoneRetention, LocalDateTime::now);
+    }
+
+    TaskChangeServiceImpl(TaskRepository taskRepository,
+                          TaskTombstoneRepository taskTombstoneRepository,
+                          PlatformTransactionManager transactionManager,
+                          Duration settleTime,
+                          Duration tombstoneRetention,
+                          Supplier<LocalDateTime> clock) {
+        this.taskRepository = taskRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.settleTime = settleTime;
+        this.tombstoneRetention = tombstoneRetention;
+        this.clock = clock;
+    }
+
+    /**
+     * Retrieves the changes after a cursor, reading at most {@code limit + 1} index entries
+     * from each table.
+     * <p>
+     * Reads go to the primary: a lagging replica could be missing changes older than the
+     * settle time, which the returned cursor would then skip for good.
+     *
+     * @param since Position of the last change the client has, or {@code null} for all tasks
+     * @param limit Maximum number of changes to return
+     * @return The changes and the cursor to continue from
+     * @throws CursorExpiredException if the cursor is older than the tombstone retention
+     */
+    @Override
+    public Changes getChanges(ChangeCursor since, int limit) {
+        LocalDateTime now = clock.get();
+        if (since != null && since.at().isBefore(now.minus(tombstoneRetention))) {
+            throw new CursorExpiredException("Change cursor is older than the retained tombstones; sync all tasks again");
+        }
+        ChangeCursor from = since != null ? since : ChangeCursor.START;
+        // Timestamps are stored with microsecond precision
+        LocalDateTime until = now.minus(settleTime).truncatedTo(ChronoUnit.MICROS);
+        return DataSourceRouting.onPrimary(() -> readTemplate.execute(status -> {
+            List<Task> tasks = taskRepository.findChangedAfter(from.at(), from.id(), until, Limit.of(limit + 1));
+            List<ChangeCursor> tombstones = taskTombstoneRepository.findDeletedAfter(from.at(), from.id(), until, Limit.of(limit + 1))
+                    .stream()
+                    .map(tombstone -> new ChangeCursor(tombstone.getDeletedAt(), tombstone.getId()))
+                    .toList();
+            return Changes.of(from, until, tasks, tombstones, limit);
+        }));
+    }
+
+    /**
+     * Scheduled entry point for {@link #purgeExpiredTombstones()}.
+     */
+    @Scheduled(initialDelayString = "${tasks.changes.purge-interval:PT1H}", fixedDelayString = "${tasks.changes.purge-interval:PT1H}")
+    public void purge() {
+        int purged = purgeExpiredTombstones();
+        if (purged > 0) {
+            log.info("Purged {} expired task tombstones", purged);
+        }
+    }
+
+    @Override
+    public int purgeExpiredTombstones() {
+        LocalDateTime cutoff = clock.get().minus(tombstoneRetention);
+        return writeTemplate.execute(status -> taskTombstoneRepository.deleteByDeletedAtBefore(cutoff));
+    }
+}
@@ -0,0 +1,362 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiosite.kiositetest.config.JpaStorage;
+import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+import com.kiosite.kiositetest.entity.ImportFormat;
+import com.kiosite.kiositetest.entity.ImportJob;
+import com.kiosite.kiositetest.entity.ImportStatus;
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.ImportFormatMismatchException;
+import com.kiosite.kiositetest.exception.ImportInProgressException;
+import com.kiosite.kiositetest.exception.NotFoundException;
+import com.kiosite.kiositetest.repository.ImportJobRepository;
+import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.service.TaskExistenceFilter;
+import com.kiosite.kiositetest.service.TaskImportService;
+import com.kiosite.kiositetest.service.TaskReadModel;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.kiosite.kiositetest.service.impl.TransactionHooks.afterCommit;
+
+/**
+ * Implementation of {@link TaskImportService} that pipelines parsing, validation and writing.
+ * <p>
+ * A reader thread parses the input into chunks and hands each one to a shared validation
+ * pool. Validated chunks are queued in input order and written by the calling thread, one
+ * transaction per chunk, so the calling user is recorded as the creator of the tasks. The
+ * queue holds at most {@code tasks.import.max-pending-chunks} chunks; when the database
+ * falls behind, the reader blocks and stops consuming input, keeping memory bounded. For
+ * the same reason a record longer than {@code tasks.import.max-record-length} characters is
+ * rejected without being kept.
+ */
+@Slf4j
+@Service
+@JpaStorage
+public class TaskImportServiceImpl implements TaskImportService {
+
+    private static final Chunk END = new Chunk(List.of(), List.of(), 0);
+
+    private final TaskRepository taskRepository;
+    private final ImportJobRepository importJobRepository;
+    private final TaskExistenceFilter taskExistenceFilter;
+    private final TaskReadModel taskReadModel;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService validationPool;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+    private final int maxReportedRejections;
+    private final int maxRecordLength;
+    private final Duration progressInterval;
+    private final Set<UUID> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public TaskImportServiceImpl(TaskRepository taskRepository,
+                                 ImportJobRepository importJobRepository,
+                                 TaskExistenceFilter taskExistenceFilter,
+                                 TaskReadModel taskReadModel,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${tasks.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${tasks.import.validation-threads:0}") int validationThreads,
+                                 @Value("${tasks.import.max-pending-chunks:8}") int maxPendingChunks,
+                                 @Value("${tasks.import.max-reported-rejections:100}") int maxReportedRejections,
+                                 @Value("${tasks.import.max-record-length:65536}") int maxRecordLength,
+                                 @Value("${tasks.import.progress-interval:PT10S}") Duration progressInterval) {
+        this.taskRepository = taskRepository;
+        this.importJobRepository = importJobRepository;
+        this.taskExistenceFilter = taskExistenceFilter;
+        this.taskReadModel = taskReadModel;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = maxPendingChunks;
+        this.maxReportedRejections = maxReportedRejections;
+        this.maxRecordLength = maxRecordLength;
+        this.progressInterval = progressInterval;
+
+        int threads = validationThreads > 0 ? validationThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.validationPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "task-import-validation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationPool.shutdownNow();
+    }
+
+    /**
+     * Imports tasks from the given input.
+     * <p>
+     * A failure while reading or writing marks the job {@link ImportStatus#FAILED} with the
+     * error and returns normally; the tasks of every chunk committed before the failure stay
+     * in the database and are skipped when the job is resumed.
+     *
+     * @param jobId  Optional id for the job; an unfinished job with this id is resumed
+     * @param format Format of the input
+     * @param input  Source stream, read to the end but not closed
+     * @return The final state of the job and a sample of rejected rows
+     * @throws ImportInProgressException     if the job is already running
+     * @throws ImportFormatMismatchException if the job was started with another format
+     */
+    @Override
+    public Result importTasks(UUID jobId, ImportFormat format, InputStream input) {
+        UUID id = jobId != null ? jobId : UUID.randomUUID();
+        if (!runningJobs.add(id)) {
+            throw new ImportInProgressException("Import job " + id + " is already running");
+        }
+        try {
+            ImportJob job = transactionTemplate.execute(status -> startJob(id, format));
+            if (job.getStatus() == ImportStatus.COMPLETED) {
+                return new Result(job, List.of());
+            }
+            return run(job, input);
+        } finally {
+            runningJobs.remove(id);
+        }
+    }
+
+    @Override
+    public ImportJob getJob(UUID jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("Import job not found with id: " + jobId));
+    }
+
+    private ImportJob startJob(UUID id, ImportFormat format) {
+        ImportJob job = importJobRepository.findById(id).orElse(null);
+        if (job == null) {
+            job = ImportJob.builder().id(id).format(format).build();
+        } else if (job.getStatus() == ImportStatus.COMPLETED) {
+            return job;
+        } else if (job.getFormat() != format) {
+            throw new ImportFormatMismatchException("Import job " + id + " was started with " + job.getFormat() + " input");
+        }
+        job.setStatus(ImportStatus.RUNNING);
+        job.setLastError(null);
+        return importJobRepository.save(job);
+    }
+
+    private Result run(ImportJob job, InputStream input) {
+        BlockingQueue<CompletableFuture<Chunk>> pending = new ArrayBlockingQueue<>(maxPendingChunks);
+        Pipeline pipeline = new Pipeline(pending);
+        TaskRecordReader reader = format(job.getFormat(), input);
+        Thread readerThread = new Thread(() -> pipeline.read(reader, job.getRowsCommitted()),
+                "task-import-reader-" + job.getId());
+        readerThread.setDaemon(true);
+
+        List<Rejection> rejections = new ArrayList<>();
+        ImportJob current = job;
+        long lastProgress = System.nanoTime();
+        log.info("Import {} started at row {}", job.getId(), job.getRowsCommitted() + 1);
+        readerThread.start();
+        try {
+            Chunk chunk;
+            while ((chunk = pending.take().join()) != END) {
+                current = commit(job.getId(), chunk);
+                for (Rejection rejection : chunk.rejections()) {
+                    if (rejections.size() < maxReportedRejections) {
+                        rejections.add(rejection);
+                    }
+                }
+                if (System.nanoTime() - lastProgress >= progressInterval.toNanos()) {
+                    lastProgress = System.nanoTime();
+                    log.info("Import {}: {} rows committed, {} imported, {} rejected", current.getId(),
+                            current.getRowsCommitted(), current.getImported(), current.getRejected());
+                }
+            }
+            current = transactionTemplate.execute(status -> finish(job.getId(), ImportStatus.COMPLETED, null));
+            log.info("Import {} completed: {} rows, {} imported, {} rejected", current.getId(),
+                    current.getRowsCommitted(), current.getImported(), current.getRejected());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            current = fail(job.getId(), "Import interrupted");
+        } catch (RuntimeException ex) {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            log.warn("Import {} failed", job.getId(), cause);
+            current = fail(job.getId(), String.valueOf(cause.getMessage()));
+        } finally {
+            pipeline.cancel();
+            try {
+                readerThread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return new Result(current, List.copyOf(rejections));
+    }
+
+    private ImportJob commit(UUID jobId, Chunk chunk) {
+        return transactionTemplate.execute(status -> {
+            List<Task> saved = taskRepository.saveAll(chunk.tasks().stream().map(this::toTask).toList());
+            ImportJob job = getJob(jobId);
+            job.setRowsCommitted(job.getRowsCommitted() + chunk.rows());
+            job.setImported(job.getImported() + saved.size());
+            job.setRejected(job.getRejected() + chunk.rejections().size());
+            ImportJob updated = importJobRepository.save(job);
+            afterCommit(() -> saved.forEach(task -> {
+                taskExistenceFilter.add(task.getId());
+                taskReadModel.upsert(task);
+            }));
+            return updated;
+        });
+    }
+
+    private ImportJob fail(UUID jobId, String error) {
+        try {
+            return transactionTemplate.execute(status -> finish(jobId, ImportStatus.FAILED, error));
+        } catch (RuntimeException ex) {
+            log.warn("Could not record failure of import {}", jobId, ex);
+            ImportJob job = new ImportJob();
+            job.setId(jobId);
+            job.setStatus(ImportStatus.FAILED);
+            job.setLastError(error);
+            return job;
+        }
+    }
+
+    private ImportJob finish(UUID jobId, ImportStatus status, String error) {
+        ImportJob job = getJob(jobId);
+        job.setStatus(status);
+        job.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        return importJobRepository.save(job);
+    }
+
+    private Task toTask(TaskRequestDTO dto) {
+        return Task.builder()
+                .title(dto.getTitle())
+                .description(dto.getDescription())
+                .status(dto.getStatus() != null ? dto.getStatus() : Status.PENDING)
+                .priority(dto.getPriority() != null ? dto.getPriority() : Task.DEFAULT_PRIORITY)
+                .dueAt(dto.getDueAt())
+                .build();
+    }
+
+    private TaskRecordReader format(ImportFormat format, InputStream input) {
+        return switch (format) {
+            case CSV -> new CsvTaskRecordReader(input, maxRecordLength);
+            case NDJSON -> new NdjsonTaskRecordReader(input, objectMapper, maxRecordLength);
+        };
+    }
+
+    private Chunk validate(List<TaskRecordReader.TaskRecord> records) {
+        List<TaskRequestDTO> tasks = new ArrayList<>(records.size());
+        List<Rejection> rejections = new ArrayList<>();
+        for (TaskRecordReader.TaskRecord record : records) {
+            if (record.error() != null) {
+                rejections.add(new Rejection(record.row(), record.error()));
+                continue;
+            }
+            Set<ConstraintViolation<TaskRequestDTO>> violations = validator.validate(record.task());
+            if (violations.isEmpty()) {
+                tasks.add(record.task());
+            } else {
+                ConstraintViolation<TaskRequestDTO> violation = violations.iterator().next();
+                rejections.add(new Rejection(record.row(), violation.getPropertyPath() + ": " + violation.getMessage()));
+            }
+        }
+        return new Chunk(tasks, rejections, records.size());
+    }
+
+    /**
+     * Valid tasks of a chunk together with its rejected rows.
+     *
+     * @param rows Number of source rows in the chunk
+     */
+    private record Chunk(List<TaskRequestDTO> tasks, List<Rejection> rejections, int rows) {
+    }
+
+    /**
+     * Reader side of a single import, feeding chunks to the writer through a bounded queue.
+     */
+    private final class Pipeline {
+
+        private final BlockingQueue<CompletableFuture<Chunk>> pending;
+        private volatile boolean cancelled;
+
+        Pipeline(BlockingQueue<CompletableFuture<Chunk>> pending) {
+            this.pending = pending;
+        }
+
+        void cancel() {
+            cancelled = true;
+            pending.clear();
+        }
+
+        void read(TaskRecordReader reader, long skipRows) {
+            try {
+                CompletableFuture<Chunk> last;
+                try {
+                    readChunks(reader, skipRows);
+                    last = CompletableFuture.completedFuture(END);
+                } catch (IOException | RuntimeException ex) {
+                    last = CompletableFuture.failedFuture(ex);
+                }
+                put(last);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void readChunks(TaskRecordReader reader, long skipRows) throws IOException, InterruptedException {
+            List<TaskRecordReader.TaskRecord> records = new ArrayList<>(chunkSize);
+            TaskRecordReader.TaskRecord record;
+            while (!cancelled && (record = reader.next()) != null) {
+                if (record.row() <= skipRows) {
+                    continue;
+                }
+                records.add(record);
+                if (records.size() == chunkSize) {
+                    submit(records);
+                    records = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!records.isEmpty()) {
+                submit(records);
+            }
+        }
+
+        private void submit(List<TaskRecordReader.TaskRecord> records) throws InterruptedException {
+            put(CompletableFuture.supplyAsync(() -> validate(records), validationPool));
+        }
+
+        private void put(CompletableFuture<Chunk> chunk) throws InterruptedException {
+            while (!cancelled) {
+                if (pending.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+
+import java.io.IOException;
+
+/**
+ * Streaming source of tasks for the bulk import.
+ */
+interface TaskRecordReader {
+
+    /**
+     * Reads the next record.
+     * <p>
+     * A record that is well-formed but cannot be mapped to a task (for example an unknown
+     * status) is returned with an error instead of failing the whole import.
+     *
+     * @return The next record, or {@code null} at the end of the input
+     * @throws IOException              if the input cannot be read
+     * @throws IllegalArgumentException if the input is structurally malformed
+     */
+    TaskRecord next() throws IOException;
+
+    /**
+     * @param row   1-based number of the record in the input
+     * @param task  Parsed task, {@code null} if the record could not be mapped
+     * @param error Why the record could not be mapped, {@code null} otherwise
+     */
+    record TaskRecord(long row, TaskRequestDTO task, String error) {
+    }
+}
@@ -1,29 +1,51 @@
 package com.kiosite.kiositetest.service.impl;
 
+import com.kiosite.kiositetest.config.JpaStorage;
 import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+import com.kiosite.kiositetest.entity.ArchivedTask;
 import com.kiosite.kiositetest.entity.Status;
 import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.entity.TaskTombstone;
 import com.kiosite.kiositetest.exception.InvalidStatusException;
 import com.kiosite.kiositetest.exception.NotFoundException;
+import com.kiosite.kiositetest.repository.ArchivedTaskRepository;
 import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.repository.TaskTombstoneRepository;
+import com.kiosite.kiositetest.service.TaskExistenceFilter;
+import com.kiosite.kiositetest.service.TaskReadModel;
 import com.kiosite.kiositetest.service.TaskService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.kiosite.kiositetest.service.impl.TransactionHooks.afterCommit;
+
 /**
  * Implementation of {@link TaskService} that manages CRUD operations for tasks.
  */
 @Service
 @RequiredArgsConstructor
 @Transactional
+@JpaStorage
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TaskExistenceFilter taskExistenceFilter;
+    private final TaskReadModel taskReadModel;
 
     /**
      * Create a new task with the given data.
@@ -39,19 +61,34 @@ public class TaskServiceImpl implements TaskService {
                 .title(taskRequestDTO.getTitle())
                 .description(taskRequestDTO.getDescription())
                 .status(taskRequestDTO.getStatus() != null ? taskRequestDTO.getStatus() : Status.PENDING)
+                .priority(taskRequestDTO.getPriority() != null ? taskRequestDTO.getPriority() : Task.DEFAULT_PRIORITY)
+                .dueAt(taskRequestDTO.getDueAt())
                 .build();
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        afterCommit(() -> {
+            taskExistenceFilter.add(saved.getId());
+            taskReadModel.upsert(saved);
+        });
+        return saved;
     }
 
     /**
      * Retrieves a paginated list of tasks, optionally filtered by status.
+     * <p>
+     * Served from the {@link TaskReadModel} when it is ready and supports the requested
+     * ordering, otherwise from the database.
      *
      * @param status   Optional {@link Status} to filter tasks
      * @param pageable {@link Pageable} object containing page number, size, and sorting
      * @return A {@link Page} of {@link Task} entities
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<Task> getAllTasks(Status status, Pageable pageable) {
+        Page<Task> cached = taskReadModel.findAll(status, pageable).orElse(null);
+        if (cached != null) {
+            return cached;
+        }
         if (status != null) {
             return taskRepository.findByStatus(status, pageable);
         } else {
@@ -59,22 +96,88 @@ public class TaskServiceImpl implements TaskService {
         }
     }
 
+    /**
+     * Retrieves a paginated list of archived tasks, optionally filtered by status.
+     *
+     * @param status   Optional {@link Status} to filter tasks
+     * @param pageable {@link Pageable} object containing page number, size, and sorting
+     * @return A {@link Page} of {@link ArchivedTask} entities
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ArchivedTask> getArchivedTasks(Status status, Pageable pageable) {
+        if (status != null) {
+            return archivedTaskRepository.findByStatus(status, pageable);
+        } else {
+            return archivedTaskRepository.findAll(pageable);
+        }
+    }
+
     /**
      * Retrieves a task by UUID.
+     * <p>
+     * Served from the {@link TaskReadModel} when it is ready. Otherwise, ids rejected by the
+     * {@link TaskExistenceFilter} fail without querying the database.
      *
      * @param id UUID of the task to retrieve
      * @return The found {@link Task} entity
      * @throws NotFoundException if no task exists with the given id
      */
     @Override
+    @Transactional(readOnly = true)
     public Task getTaskById(UUID id) {
-        return taskRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Task not found with id: " + id));
+        if (taskReadModel.isReady()) {
+            return taskReadModel.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Task not found with id: " + id));
+        }
+        return findTask(id);
+    }
+
+    /**
+     * Retrieves several tasks by UUID.
+     * <p>
+     * Served from the {@link TaskReadModel} when it is ready. Otherwise the ids that pass the
+     * {@link TaskExistenceFilter} are loaded with a single {@code IN} query.
+     *
+     * @param ids UUIDs of the tasks to retrieve
+     * @return The found tasks and the missing ids, in request order
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Lookup getTasksByIds(Collection<UUID> ids) {
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        Map<UUID, Task> found = new HashMap<>();
+        if (taskReadModel.isReady()) {
+            requested.forEach(id -> taskReadModel.findById(id).ifPresent(task -> found.put(id, task)));
+        } else {
+            List<UUID> candidates = requested.stream().filter(taskExistenceFilter::mightContain).toList();
+            if (!candidates.isEmpty()) {
+                taskRepository.findAllById(candidates).forEach(task -> found.put(task.getId(), task));
+            }
+        }
+        return Lookup.of(requested, found);
+    }
+
+    /**
+     * Retrieves the most urgent pending tasks, reading only {@code limit} entries of the
+     * {@code idx_task_next} index.
+     *
+     * @param limit Maximum number of tasks to return
+     * @return Up to {@code limit} pending tasks, most urgent first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> getNextTasks(int limit) {
+        return taskRepository.findNextByStatus(Status.PENDING, Limit.of(limit));
     }
 
     /**
      * Updates an existing task with new data.
      * <p>
+     * The request replaces the task's data as on creation: an omitted description or due
+     * date clears it and an omitted priority resets it to {@link Task#DEFAULT_PRIORITY}. An
+     * omitted status keeps the current one.
+     * <p>
      * Business rules:
      * <ul>
      *     <li>Cannot mark a task as DONE if it is currently IN_PROGRESS.</li>
@@ -88,10 +191,11 @@ public class TaskServiceImpl implements TaskService {
      */
     @Override
     public Task updateTask(UUID id, TaskRequestDTO taskRequestDTO) throws InvalidStatusException {
-        Task task = getTaskById(id);
+        Task task = findTask(id);
 
         task.setTitle(taskRequestDTO.getTitle());
         task.setDescription(taskRequestDTO.getDescription());
+        task.setDueAt(taskRequestDTO.getDueAt());
 
         if (task.getStatus() == Status.IN_PROGRESS && taskRequestDTO.getStatus() == Status.DONE) {
             throw new InvalidStatusException("Cannot mark task as DONE while it is IN_PROGRESS");
@@ -100,19 +204,40 @@ public class TaskServiceImpl implements TaskService {
         if (taskRequestDTO.getStatus() != null) {
             task.setStatus(taskRequestDTO.getStatus());
         }
+        task.setPriority(taskRequestDTO.getPriority() != null ? taskRequestDTO.getPriority() : Task.DEFAULT_PRIORITY);
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        afterCommit(() -> taskReadModel.upsert(saved));
+        return saved;
     }
 
     /**
-     * Delete a task by UUID.
+     * Delete a task by UUID, leaving a {@link TaskTombstone} for the changes feed.
      *
      * @param id UUID of the task to delete
      * @throws NotFoundException if no task exists with the given id
      */
     @Override
     public void deleteTask(UUID id) {
-        Task task = getTaskById(id);
+        Task task = findTask(id);
         taskRepository.delete(task);
+        taskTombstoneRepository.save(new TaskTombstone(id, LocalDateTime.now()));
+        afterCommit(() -> taskReadModel.removeAll(List.of(id)));
+    }
+
+    /**
+     * Loads a managed task from the database, skipping the query for ids rejected by the
+     * {@link TaskExistenceFilter}.
+     *
+     * @param id UUID of the task to load
+     * @return The managed {@link Task} entity
+     * @throws NotFoundException if no task exists with the given id
+     */
+    private Task findTask(UUID id) {
+        if (!taskExistenceFilter.mightContain(id)) {
+            throw new NotFoundException("Task not found with id: " + id);
+        }
+        return taskRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Task not found with id: " + id));
     }
 }
@@ -0,0 +1,263 @@
+package com.kiosite.kiositetest.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiosite.kiositetest.config.JpaStorage;
+import com.kiosite.kiositetest.controller.TaskController;
+import com.kiosite.kiositetest.controller.dto.TaskLookupRequestDTO;
+import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs the task request paths in-process at startup so that the JIT has compiled them before
+ * the node takes traffic.
+ * <p>
+ * Application runners complete before Spring Boot reports the application as ready, so
+ * {@code /actuator/health/readiness} stays {@code OUT_OF_SERVICE} until the warm-up ends.
+ * Each iteration goes through {@link TaskController} to create, read, list, look up, update
+ * and delete a task, flushing to the database and serializing every response with Jackson,
+ * inside a transaction that is always rolled back: nothing is committed and the existence
+ * filter and read model never see the scratch tasks.
+ * <p>
+ * Iterations run in rounds until the JIT compilation time spent during a round drops below
+ * {@code tasks.warm-up.stable-compilation-ratio} of the round's duration, or until
+ * {@code tasks.warm-up.max-duration} has passed. The outcome is published as
+ * {@code tasks.warmup.*} metrics.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication
+@ConditionalOnProperty("tasks.warm-up.enabled")
+@JpaStorage
+public class TaskWarmUp implements ApplicationRunner {
+
+    private static final int MIN_ROUNDS = 2;
+
+    private final TaskController taskController;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxDuration;
+    private final int roundIterations;
+    private final double stableCompilationRatio;
+    private final LongSupplier compilationMillis;
+
+    private volatile Result result;
+    private int iterations;
+
+    @Autowired
+    public TaskWarmUp(TaskController taskController,
+                      ObjectMapper objectMapper,
+                      Validator validator,
+                      EntityManager entityManager,
+                      PlatformTransactionManager transactionManager,
+                      MeterRegistry meterRegistry,
+                      @Value("${tasks.warm-up.max-duration:PT30S}") Duration maxDuration,
+                      @Value("${tasks.warm-up.round-iterations:200}") int roundIterations,
+                      @Value("${tasks.warm-up.stable-compilation-ratio:0.05}") double stableCompilationRatio) {
+        this(taskController, objectMapper, validator, entityManager, transactionManager, meterRegistry,
+                maxDuration, roundIterations, stableCompilationRatio, jitCompilationMillis());
+    }
+
+    TaskWarmUp(TaskController taskController,
+               ObjectMapper objectMapper,
+               Validator validator,
+               EntityManager entityManager,
+               PlatformTransactionManager transactionManager,
+               MeterRegistry meterRegistry,
+               Duration maxDuration,
+               int roundIterations,
+               double stableCompilationRatio,
+               LongSupplier compilationMillis) {
+        this.taskController = taskController;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxDuration = maxDuration;
+        this.roundIterations = roundIterations;
+        this.stableCompilationRatio = stableCompilationRatio;
+        this.compilationMillis = compilationMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Runs warm-up rounds and registers the metrics describing them.
+     *
+     * @return What the warm-up did
+     */
+    Result warmUp() {
+        log.info("JIT warm-up started");
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        long compilationAtStart = compilationMillis();
+        double firstIterationMillis = 0;
+        double lastIterationMillis = 0;
+        int rounds = 0;
+        boolean stable = false;
+        try {
+            while (!stable && System.nanoTime() - deadline < 0) {
+                long roundStart = System.nanoTime();
+                long compilationAtRoundStart = compilationMillis();
+                for (int i = 0; i < roundIterations; i++) {
+                    iterate(iterations++);
+                }
+                long roundNanos = System.nanoTime() - roundStart;
+                long roundCompilationMillis = compilationMillis() - compilationAtRoundStart;
+                rounds++;
+                lastIterationMillis = roundNanos / 1e6 / roundIterations;
+                if (rounds == 1) {
+                    firstIterationMillis = lastIterationMillis;
+                }
+                stable = rounds >= MIN_ROUNDS && compilationMillis != null
+                        && roundCompilationMillis <= stableCompilationRatio * TimeUnit.NANOSECONDS.toMillis(roundNanos);
+                log.debug("JIT warm-up round {}: {} ms per iteration, {} ms compiling",
+                        rounds, String.format("%.3f", lastIterationMillis), roundCompilationMillis);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("JIT warm-up stopped after {} rounds", rounds, ex);
+        }
+
+        Result outcome = new Result(Duration.ofNanos(System.nanoTime() - start), rounds, iterations,
+                stable, compilationMillis() - compilationAtStart, firstIterationMillis, lastIterationMillis);
+        register(outcome);
+        log.info("JIT warm-up {} after {} ms and {} iterations: {} ms per iteration in the first round, {} ms in the last",
+                stable ? "stabilized" : "stopped", outcome.duration().toMillis(), outcome.iterations(),
+                String.format("%.3f", firstIterationMillis), String.format("%.3f", lastIterationMillis));
+        return outcome;
+    }
+
+    private void iterate(int iteration) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            tx.setRollbackOnly();
+            try {
+                TaskRequestDTO request = read(TaskRequestDTO.builder()
+                        .title("Warm-up " + iteration)
+                        .description("Scratch task, rolled back")
+                        .priority(1 + iteration % Task.LOWEST_PRIORITY)
+                        .dueAt(iteration % 2 == 0 ? LocalDateTime.now().plusDays(1) : null)
+                        .build());
+                Task created = taskController.createTask(null, null, request).getBody();
+                entityManager.flush();
+                write(created);
+                UUID id = created.getId();
+
+                write(taskController.getTaskById(id).getBody());
+                write(taskController.getAllTasks(Status.PENDING, 0, 10, "createdAt", false).getBody());
+                write(taskController.getNextTasks(10).getBody());
+                write(taskController.lookupTasks(new TaskLookupRequestDTO(List.of(id, UUID.randomUUID()))).getBody());
+
+                request.setStatus(Status.IN_PROGRESS);
+                write(taskController.updateTask(id, read(request)).getBody());
+                entityManager.flush();
+
+                taskController.deleteTask(id);
+                entityManager.flush();
+            } catch (IOException ex) {
+                throw new IllegalStateException("Warm-up request failed", ex);
+            }
+        });
+    }
+
+    /**
+     * Round-trips a request through Jackson and validates it, as the request body binding does.
+     */
+    private TaskRequestDTO read(TaskRequestDTO request) throws IOException {
+        TaskRequestDTO parsed = objectMapper.readValue(objectMapper.writeValueAsBytes(request), TaskRequestDTO.class);
+        if (!validator.validate(parsed).isEmpty()) {
+            throw new IllegalStateException("Invalid warm-up request");
+        }
+        return parsed;
+    }
+
+    private void write(Object body) throws IOException {
+        objectMapper.writeValueAsBytes(body);
+    }
+
+    private void register(Result outcome) {
+        result = outcome;
+        TimeGauge.builder("tasks.warmup.duration", this, TimeUnit.MILLISECONDS, w -> w.result.duration().toMillis())
+                .description("Time spent warming up before reporting ready")
+                .register(meterRegistry);
+        Gauge.builder("tasks.warmup.iterations", this, w -> w.result.iterations())
+                .description("Warm-up iterations run")
+                .register(meterRegistry);
+        Gauge.builder("tasks.warmup.stable", this, w -> w.result.stable() ? 1 : 0)
+                .description("1 if JIT compilation settled before the maximum warm-up duration")
+                .register(meterRegistry);
+        TimeGauge.builder("tasks.warmup.jit.compilation", this, TimeUnit.MILLISECONDS, w -> w.result.compilationMillis())
+                .description("JIT compilation time accumulated during the warm-up")
+                .register(meterRegistry);
+        TimeGauge.builder("tasks.warmup.iteration.time", this, TimeUnit.MILLISECONDS, w -> w.result.firstIterationMillis())
+                .description("Mean time of one warm-up iteration")
+                .tag("round", "first")
+                .register(meterRegistry);
+        TimeGauge.builder("tasks.warmup.iteration.time", this, TimeUnit.MILLISECONDS, w -> w.result.lastIterationMillis())
+                .description("Mean time of one warm-up iteration")
+                .tag("round", "last")
+                .register(meterRegistry);
+    }
+
+    private long compilationMillis() {
+        return compilationMillis != null ? compilationMillis.getAsLong() : 0;
+    }
+
+    /**
+     * @return Total JIT compilation time, or {@code null} if the JVM does not report it, in
+     * which case the warm-up always runs until {@code max-duration}
+     */
+    private static LongSupplier jitCompilationMillis() {
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        if (compilation == null || !compilation.isCompilationTimeMonitoringSupported()) {
+            return null;
+        }
+        return compilation::getTotalCompilationTime;
+    }
+
+    /**
+     * Outcome of a warm-up.
+     *
+     * @param duration             Wall-clock time of the warm-up
+     * @param rounds               Rounds run
+     * @param iterations           Iterations run
+     * @param stable               Whether compilation settled before {@code max-duration}
+     * @param compilationMillis    JIT compilation time accumulated during the warm-up
+     * @param firstIterationMillis Mean iteration time in the first round
+     * @param lastIterationMillis  Mean iteration time in the last round
+     */
+    record Result(Duration duration, int rounds, int iterations, boolean stable, long compilationMillis,
+                  double firstIterationMillis, double lastIterationMillis) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.kiosite.kiositetest.benchmark;
+
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.repository.sharded.ShardedTaskStore;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the throughput of the {@link ShardedTaskStore} with different numbers of
+ * in-memory HSQLDB shards, all threads hitting the store at once:
+ * <ul>
+ *     <li>inserts of new tasks,</li>
+ *     <li>point reads of random existing tasks by id,</li>
+ *     <li>first pages of pending tasks by creation time, which scatter-gather all shards.</li>
+ * </ul>
+ * Every configuration starts from the same number of preloaded tasks; inserts are measured
+ * last so that reads always see that many. Shards only help when there are cores to run
+ * them on, so compare runs on a machine with at least as many cores as shards.
+ * <p>
+ * Run by {@code mvn verify -Psharded-benchmark}, or directly with
+ * {@code ShardedStoreBenchmark [threads] [seconds per phase] [shard counts] [preloaded tasks]}.
+ */
+public final class ShardedStoreBenchmark {
+
+    private static final Duration WARM_UP_PHASE = Duration.ofSeconds(1);
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("createdAt"));
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private ShardedStoreBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 && Integer.parseInt(args[0]) > 0
+                ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        Duration phase = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 5);
+        int[] shardCounts = Arrays.stream((args.length > 2 ? args[2] : "1,2,4,8").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int preloaded = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+
+        System.out.printf("%d threads on %d cores, %d s per phase, %d preloaded tasks%n",
+                threads, Runtime.getRuntime().availableProcessors(), phase.toSeconds(), preloaded);
+        run(shardCounts[shardCounts.length - 1], threads, WARM_UP_PHASE, preloaded); // warms the JIT, not counted
+
+        System.out.printf("%-8s %22s %22s %22s%n", "shards", "inserts/s", "gets/s", "pages/s");
+        Result baseline = null;
+        for (int shards : shardCounts) {
+            Result result = run(shards, threads, phase, preloaded);
+            if (baseline == null) {
+                baseline = result;
+            }
+            System.out.printf("%-8d %22s %22s %22s%n", shards,
+                    format(result.inserts(), baseline.inserts()),
+                    format(result.gets(), baseline.gets()),
+                    format(result.pages(), baseline.pages()));
+        }
+    }
+
+    private static Result run(int shards, int threads, Duration phase, int preloaded) throws InterruptedException {
+        List<HikariDataSource> dataSources = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:hsqldb:mem:sharded-benchmark-" + DATABASES.incrementAndGet());
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(threads);
+            dataSources.add(dataSource);
+        }
+        ShardedTaskStore store = new ShardedTaskStore(dataSources);
+        try {
+            List<UUID> ids = IntStream.range(0, preloaded).parallel()
+                    .mapToObj(i -> insert(store))
+                    .toList();
+            double gets = measure(threads, phase, random -> store.get(ids.get(random.nextInt(ids.size()))));
+            double pages = measure(threads, phase, random -> store.findAll(Status.PENDING, FIRST_PAGE));
+            double inserts = measure(threads, phase, random -> insert(store));
+            return new Result(inserts, gets, pages);
+        } finally {
+            dataSources.forEach(dataSource -> new JdbcTemplate(dataSource).execute("SHUTDOWN"));
+            store.close();
+        }
+    }
+
+    /**
+     * Runs the operation on every thread until the phase ends.
+     *
+     * @return Operations per second, all threads together
+     */
+    private static double measure(int threads, Duration phase, Consumer<ThreadLocalRandom> operation)
+            throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + phase.toNanos();
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() - deadline < 0) {
+                    operation.accept(random);
+                    operations.increment();
+                }
+            }, "sharded-benchmark-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static UUID insert(ShardedTaskStore store) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Task task = Task.builder()
+                .id(UUID.randomUUID())
+                .title("Benchmark task " + random.nextInt(1000))
+                .description("Inserted by the sharded store benchmark")
+                .status(Status.values()[random.nextInt(Status.values().length)])
+                .priority(1 + random.nextInt(Task.LOWEST_PRIORITY))
+                .dueAt(random.nextBoolean() ? now.plusDays(random.nextInt(30)) : null)
+                .build();
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+        task.setCreatedBy("benchmark");
+        task.setModifiedBy("benchmark");
+        store.insert(task);
+        return task.getId();
+    }
+
+    private static String format(double value, double baseline) {
+        return String.format("%.0f (%.2fx)", value, value / baseline);
+    }
+
+    private record Result(double inserts, double gets, double pages) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.kiosite.kiositetest.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures cold-start cost of the packaged application: the startup time reported by
+ * Spring Boot and the time from process launch until the first authenticated
+ * {@code GET /tasks} succeeds.
+ * <p>
+ * Compares the plain executable jar with the fast-startup mode (extracted jar, AOT
+ * processing, AppCDS archive and the {@code fast-startup} profile). Run by
+ * {@code mvn verify -Pfast-startup}, or directly with
+ * {@code StartupBenchmark <jar> <fast-startup dir> [runs]}.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile(
+            "Started TaskManagementApplication in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+    private static final Duration FIRST_REQUEST_TIMEOUT = Duration.ofSeconds(120);
+    private static final String AUTHORIZATION = "Basic "
+            + Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: StartupBenchmark <jar> <fast-startup dir> [runs]");
+            System.exit(2);
+        }
+        Path jar = Path.of(args[0]).toAbsolutePath();
+        Path fastStartupDir = Path.of(args[1]).toAbsolutePath();
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("default", jar.getParent(), List.of(java, "-jar", jar.toString())));
+        Path archive = fastStartupDir.resolve("application.jsa");
+        if (Files.exists(archive)) {
+            variants.add(new Variant("fast-startup", fastStartupDir, List.of(java,
+                    "-XX:SharedArchiveFile=" + archive,
+                    "-Dspring.aot.enabled=true",
+                    "-Dspring.profiles.active=fast-startup",
+                    "-jar", jar.getFileName().toString())));
+        } else {
+            System.out.println("No CDS archive at " + archive + ", benchmarking the default mode only");
+        }
+
+        System.out.printf("%-14s %8s %14s %14s %18s%n", "mode", "runs", "context (ms)", "process (ms)", "first request (ms)");
+        for (Variant variant : variants) {
+            run(variant); // warms the OS file cache, not counted
+            List<Sample> samples = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                samples.add(run(variant));
+            }
+            System.out.printf("%-14s %8d %14d %14d %18d%n", variant.name(), runs,
+                    median(samples, Sample::contextMillis),
+                    median(samples, Sample::processMillis),
+                    median(samples, Sample::firstRequestMillis));
+        }
+    }
+
+    private static Sample run(Variant variant) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(variant.command());
+        command.add("--server.port=" + port);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(variant.workingDirectory().toFile())
+                .redirectErrorStream(true)
+                .start();
+        CompletableFuture<Matcher> started = watchOutput(process);
+        try {
+            long firstRequest = awaitFirstRequest(port, start, process);
+            Matcher matcher = started.get(FIRST_REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            return new Sample(seconds(matcher.group(1)), seconds(matcher.group(2)), firstRequest);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static long awaitFirstRequest(int port, long start, Process process) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tasks"))
+                .header("Authorization", AUTHORIZATION)
+                .build();
+        long deadline = start + FIRST_REQUEST_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = CLIENT.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                throw new IllegalStateException("GET /tasks returned " + response.statusCode());
+            } catch (ConnectException ex) {
+                Thread.sleep(5);
+            }
+        }
+        throw new IllegalStateException("Application did not serve a request within " + FIRST_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Drains the application output on a daemon thread, completing the returned future with
+     * the startup line once it appears.
+     */
+    private static CompletableFuture<Matcher> watchOutput(Process process) {
+        CompletableFuture<Matcher> started = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    Matcher matcher = STARTED.matcher(line);
+                    if (!started.isDone() && matcher.find()) {
+                        started.complete(matcher);
+                    }
+                }
+            } catch (IOException ex) {
+                started.completeExceptionally(ex);
+            }
+            started.completeExceptionally(new IllegalStateException("Startup line not found in application output"));
+        }, "startup-benchmark-output");
+        reader.setDaemon(true);
+        reader.start();
+        return started;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long seconds(String value) {
+        return Math.round(Double.parseDouble(value) * 1000);
+    }
+
+    private static long median(List<Sample> samples, ToLongFunction<Sample> metric) {
+        long[] values = samples.stream().mapToLong(metric).sorted().toArray();
+        return values[values.length / 2];
+    }
+
+    private record Variant(String name, Path workingDirectory, List<String> command) {
+    }
+
+    private record Sample(long contextMillis, long processMillis, long firstRequestMillis) {
+    }
+}
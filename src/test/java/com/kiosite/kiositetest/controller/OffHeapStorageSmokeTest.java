@@ -0,0 +1,7 @@
+package com.kiosite.kiositetest.controller;
+
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("offheap")
+class OffHeapStorageSmokeTest extends StorageEngineSmokeTest {
+}
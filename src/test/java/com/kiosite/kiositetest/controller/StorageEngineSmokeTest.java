@@ -0,0 +1,64 @@
+package com.kiosite.kiositetest.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Starts the application with an alternative storage engine and runs a task through the
+ * endpoints, so that a profile missing a bean or mapping fails the build.
+ */
+@SpringBootTest(properties = "tasks.offheap.snapshot.path=")
+@AutoConfigureMockMvc
+@WithMockUser
+abstract class StorageEngineSmokeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void taskLifecycle() throws Exception {
+        String created = mockMvc.perform(post("/tasks").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Smoke\",\"priority\":1,\"dueAt\":\"2030-01-31T17:00:00\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(created).get("id").asText();
+
+        mockMvc.perform(get("/tasks/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Smoke"));
+        mockMvc.perform(get("/tasks").param("sort", "id"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks/next").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id));
+
+        mockMvc.perform(put("/tasks/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Smoke\",\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.priority").value(3))
+                .andExpect(jsonPath("$.dueAt").value(nullValue()));
+        mockMvc.perform(put("/tasks/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Smoke\",\"status\":\"DONE\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/tasks/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/tasks/{id}", id))
+                .andExpect(status().isNotFound());
+    }
+}
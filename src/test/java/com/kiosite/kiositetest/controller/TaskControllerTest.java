@@ -2,11 +2,17 @@ package com.kiosite.kiositetest.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kiosite.kiositetest.config.SecurityConfig;
+import com.kiosite.kiositetest.controller.dto.TaskLookupRequestDTO;
+import com.kiosite.kiositetest.entity.ArchivedTask;
 import com.kiosite.kiositetest.entity.Status;
 import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.CursorExpiredException;
+import com.kiosite.kiositetest.exception.InvalidSortException;
 import com.kiosite.kiositetest.exception.InvalidStatusException;
 import com.kiosite.kiositetest.exception.NotFoundException;
+import com.kiosite.kiositetest.service.TaskChangeService;
 import com.kiosite.kiositetest.service.TaskService;
+import com.kiosite.kiositetest.service.impl.InMemoryIdempotencyService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -17,15 +23,19 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, InMemoryIdempotencyService.class})
 class TaskControllerTest {
 
     @Autowired
@@ -34,9 +44,15 @@ class TaskControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TaskController taskController;
+
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskChangeService taskChangeService;
+
     @Test
     @WithMockUser
     void testGetTaskByIdSuccess() throws Exception {
@@ -75,6 +91,50 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.title").value("New Task"));
     }
 
+    @Test
+    @WithMockUser
+    void testCreateTaskWithIdempotencyKeyReplaysResponse() throws Exception {
+        Task task = Task.builder().id(UUID.randomUUID()).title("New Task").status(Status.PENDING).build();
+        when(taskService.createTask(any())).thenReturn(task);
+
+        String json = "{\"title\":\"New Task\"}";
+
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(task.getId().toString()));
+
+        verify(taskService, times(1)).createTask(any());
+    }
+
+    @Test
+    @WithMockUser
+    void testCreateTaskWithReusedIdempotencyKey() throws Exception {
+        when(taskService.createTask(any())).thenReturn(Task.builder().title("New Task").build());
+
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New Task\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/tasks")
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Other Task\"}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     @WithMockUser
     void testCreateTaskValidationError() throws Exception {
@@ -152,5 +212,169 @@ class TaskControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].title").value("Task2"));
     }
-}
 
+    @Test
+    @WithMockUser
+    void testGetArchivedTasks() throws Exception {
+        ArchivedTask archivedTask = ArchivedTask.builder().title("Archived").status(Status.DONE).build();
+        when(taskService.getArchivedTasks(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(archivedTask)));
+
+        mockMvc.perform(get("/tasks").param("archived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Archived"));
+
+        verify(taskService, never()).getAllTasks(any(), any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetTasksByIds() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Task task = Task.builder().id(id).title("Found").status(Status.PENDING).build();
+        when(taskService.getTasksByIds(List.of(id, missingId)))
+                .thenReturn(new TaskService.Lookup(List.of(task), List.of(missingId)));
+
+        mockMvc.perform(get("/tasks").param("ids", id + "," + missingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.tasks[0].title").value("Found"))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+
+        verify(taskService, never()).getAllTasks(any(), any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser
+    void testLookupTasks() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(taskService.getTasksByIds(List.of(id))).thenReturn(new TaskService.Lookup(List.of(), List.of(id)));
+
+        mockMvc.perform(post("/tasks/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + id + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks").isEmpty())
+                .andExpect(jsonPath("$.missing[0]").value(id.toString()));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetTasksByIdsEmptyId() throws Exception {
+        mockMvc.perform(get("/tasks").param("ids", UUID.randomUUID() + ",," + UUID.randomUUID()))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasksByIds(any());
+    }
+
+    @Test
+    @WithMockUser
+    void testLookupTasksImmutableIds() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(taskService.getTasksByIds(List.of(id))).thenReturn(new TaskService.Lookup(List.of(), List.of(id)));
+
+        assertEquals(List.of(id), taskController.lookupTasks(new TaskLookupRequestDTO(List.of(id))).getBody().getMissing());
+    }
+
+    @Test
+    @WithMockUser
+    void testLookupTasksNullId() throws Exception {
+        mockMvc.perform(post("/tasks/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + UUID.randomUUID() + "\",null]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasksByIds(any());
+    }
+
+    @Test
+    @WithMockUser
+    void testLookupTasksTooManyIds() throws Exception {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(TaskController.MAX_LOOKUP_IDS + 1).toList();
+
+        mockMvc.perform(post("/tasks/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("ids", ids))))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasksByIds(any());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetNextTasks() throws Exception {
+        Task task = Task.builder().id(UUID.randomUUID()).title("Urgent").status(Status.PENDING).priority(1)
+                .dueAt(LocalDateTime.of(2024, 1, 31, 17, 0)).build();
+        when(taskService.getNextTasks(3)).thenReturn(List.of(task));
+
+        mockMvc.perform(get("/tasks/next").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Urgent"))
+                .andExpect(jsonPath("$[0].priority").value(1))
+                .andExpect(jsonPath("$[0].dueAt").value("2024-01-31T17:00:00"));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetNextTasksLimitOutOfRange() throws Exception {
+        mockMvc.perform(get("/tasks/next").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getNextTasks(anyInt());
+    }
+
+    @Test
+    @WithMockUser
+    void testCreateTaskInvalidPriority() throws Exception {
+        mockMvc.perform(post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New Task\",\"priority\":6}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetChanges() throws Exception {
+        TaskChangeService.ChangeCursor since = new TaskChangeService.ChangeCursor(LocalDateTime.of(2024, 1, 31, 17, 0), UUID.randomUUID());
+        TaskChangeService.ChangeCursor next = TaskChangeService.ChangeCursor.after(LocalDateTime.of(2024, 2, 1, 9, 0));
+        Task task = Task.builder().id(UUID.randomUUID()).title("Changed").status(Status.PENDING).build();
+        UUID deleted = UUID.randomUUID();
+        when(taskChangeService.getChanges(since, 50))
+                .thenReturn(new TaskChangeService.Changes(List.of(task), List.of(deleted), next, false));
+
+        mockMvc.perform(get("/tasks/changes").param("since", since.encode()).param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].title").value("Changed"))
+                .andExpect(jsonPath("$.deleted[0]").value(deleted.toString()))
+                .andExpect(jsonPath("$.cursor").value(next.encode()))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetChangesInvalidCursor() throws Exception {
+        mockMvc.perform(get("/tasks/changes").param("since", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskChangeService);
+    }
+
+    @Test
+    @WithMockUser
+    void testGetAllTasksUnknownSortProperty() throws Exception {
+        when(taskService.getAllTasks(any(), any())).thenThrow(new InvalidSortException("Cannot sort tasks by 'password'"));
+
+        mockMvc.perform(get("/tasks").param("sort", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cannot sort tasks by 'password'"));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetChangesExpiredCursor() throws Exception {
+        when(taskChangeService.getChanges(any(), anyInt())).thenThrow(new CursorExpiredException("Change cursor expired"));
+
+        mockMvc.perform(get("/tasks/changes").param("since", TaskChangeService.ChangeCursor.START.encode()))
+                .andExpect(status().isGone());
+    }
+}
@@ -0,0 +1,125 @@
+package com.kiosite.kiositetest.controller;
+
+import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.monitoring.SqlStatementStatsFilter;
+import com.kiosite.kiositetest.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static com.kiosite.kiositetest.support.SqlStatementBudget.statements;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Number of SQL statements each endpoint issues against the database. Update the budget
+ * only for a deliberate change, and check that no per-row query crept in.
+ */
+@SpringBootTest(properties = {
+        "tasks.sql-stats.enabled=true",
+        "tasks.read-model.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class TaskQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void createTask() throws Exception {
+        mockMvc.perform(post("/tasks").contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Budget\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(SqlStatementStatsFilter.STATEMENTS_HEADER, "1"))
+                .andExpect(header().string(SqlStatementStatsFilter.SERVER_TIMING_HEADER, startsWith("sql;dur=")))
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void getTaskById() throws Exception {
+        UUID id = existingTask().getId();
+
+        mockMvc.perform(get("/tasks/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void getAllTasks_fullPage_selectsAndCounts() throws Exception {
+        existingTask();
+        existingTask();
+
+        mockMvc.perform(get("/tasks").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(statements(2));
+    }
+
+    @Test
+    void getTasksByIds() throws Exception {
+        UUID first = existingTask().getId();
+        UUID second = existingTask().getId();
+
+        mockMvc.perform(get("/tasks").param("ids", first + "," + second + "," + UUID.randomUUID()))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void getNextTasks() throws Exception {
+        existingTask();
+
+        mockMvc.perform(get("/tasks/next").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void getChanges() throws Exception {
+        mockMvc.perform(get("/tasks/changes").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(statements(2));
+    }
+
+    @Test
+    void updateTask() throws Exception {
+        UUID id = existingTask().getId();
+
+        mockMvc.perform(put("/tasks/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Updated\",\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk())
+                .andExpect(statements(2));
+    }
+
+    @Test
+    void deleteTask_loadsDeletesAndLeavesTombstone() throws Exception {
+        UUID id = existingTask().getId();
+
+        mockMvc.perform(delete("/tasks/{id}", id))
+                .andExpect(status().isNoContent())
+                .andExpect(statements(3));
+    }
+
+    @Test
+    void getTaskById_unknownId_skipsDatabase() throws Exception {
+        mockMvc.perform(get("/tasks/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(statements(0));
+    }
+
+    private Task existingTask() {
+        return taskService.createTask(new TaskRequestDTO("Budget", null, Status.PENDING, null, null));
+    }
+}
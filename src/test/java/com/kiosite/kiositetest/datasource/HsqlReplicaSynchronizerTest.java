@@ -0,0 +1,84 @@
+package com.kiosite.kiositetest.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HsqlReplicaSynchronizerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private SingleConnectionDataSource primary;
+    private SingleConnectionDataSource replica;
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagGuard lagGuard;
+    private HsqlReplicaSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        primary = new SingleConnectionDataSource("jdbc:hsqldb:mem:primary-" + UUID.randomUUID(), "sa", "", true);
+        replica = new SingleConnectionDataSource("jdbc:hsqldb:mem:replica-" + UUID.randomUUID(), "sa", "", true);
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        primaryJdbc.execute("create table task (id uuid primary key, title varchar(100) not null, status varchar(20))");
+        primaryJdbc.execute("create index idx_task_status on task(status)");
+        lagGuard = new ReplicaLagGuard(Duration.ofSeconds(5), true, clock::get);
+        synchronizer = new HsqlReplicaSynchronizer(primary, replica, lagGuard, clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryJdbc.execute("shutdown");
+        replicaJdbc.execute("shutdown");
+        primary.destroy();
+        replica.destroy();
+    }
+
+    @Test
+    void sync_copiesSchemaAndRowsAndReportsPosition() {
+        UUID id = UUID.randomUUID();
+        primaryJdbc.update("insert into task values (?, ?, ?)", id, "First", "PENDING");
+
+        synchronizer.sync();
+
+        assertEquals(List.of("First"), replicaJdbc.queryForList("select title from task where id = ?", String.class, id));
+        assertFalse(lagGuard.requiresPrimary("admin"));
+    }
+
+    @Test
+    void sync_afterWrite_replacesRows() {
+        primaryJdbc.update("insert into task values (?, ?, ?)", UUID.randomUUID(), "First", "PENDING");
+        synchronizer.sync();
+
+        primaryJdbc.update("delete from task");
+        primaryJdbc.update("insert into task values (?, ?, ?)", UUID.randomUUID(), "Second", "DONE");
+        clock.addAndGet(10);
+        lagGuard.recordWrite("admin");
+        assertTrue(lagGuard.requiresPrimary("admin"));
+        clock.addAndGet(10);
+        synchronizer.sync();
+
+        assertEquals(List.of("Second"), replicaJdbc.queryForList("select title from task", String.class));
+        assertFalse(lagGuard.requiresPrimary("admin"));
+    }
+
+    @Test
+    void sync_withoutWrites_skipsCopy() {
+        synchronizer.sync();
+        primaryJdbc.update("insert into task values (?, ?, ?)", UUID.randomUUID(), "Unrecorded", "PENDING");
+        clock.addAndGet(10);
+
+        synchronizer.sync();
+
+        assertEquals(0, replicaJdbc.queryForObject("select count(*) from task", Integer.class));
+    }
+}
@@ -0,0 +1,90 @@
+package com.kiosite.kiositetest.datasource;
+
+import com.kiosite.kiositetest.datasource.ReadReplicaRoutingDataSource.Route;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private AuditorAware<String> auditorAware;
+
+    private ReplicaLagGuard lagGuard;
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+        lagGuard = new ReplicaLagGuard(Duration.ofMinutes(1), false);
+        routingDataSource = new ReadReplicaRoutingDataSource(primary, replica, lagGuard, auditorAware);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void determineCurrentLookupKey_readOnlyTransaction_usesReplica() {
+        beginTransaction(true);
+
+        assertEquals(Route.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_withoutTransaction_usesPrimary() {
+        assertEquals(Route.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_onPrimary_usesPrimary() {
+        beginTransaction(true);
+
+        assertEquals(Route.PRIMARY, DataSourceRouting.onPrimary(() -> routingDataSource.determineCurrentLookupKey()));
+        assertEquals(Route.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_readAfterOwnCommittedWrite_usesPrimary() {
+        beginTransaction(false);
+        assertEquals(Route.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        tearDown();
+
+        beginTransaction(true);
+
+        assertEquals(Route.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("someone-else"));
+        assertEquals(Route.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
@@ -0,0 +1,53 @@
+package com.kiosite.kiositetest.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaLagGuardTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    void requiresPrimary_withoutPosition_onlyWithinMaxLagOfOwnWrite() {
+        ReplicaLagGuard guard = new ReplicaLagGuard(Duration.ofNanos(100), false, clock::get);
+
+        guard.recordWrite("alice");
+
+        assertTrue(guard.requiresPrimary("alice"));
+        assertFalse(guard.requiresPrimary("bob"));
+        assertFalse(guard.requiresPrimary(null));
+        clock.addAndGet(101);
+        assertFalse(guard.requiresPrimary("alice"));
+    }
+
+    @Test
+    void requiresPrimary_withPosition_untilSnapshotAfterOwnWrite() {
+        ReplicaLagGuard guard = new ReplicaLagGuard(Duration.ofNanos(100), true, clock::get);
+
+        assertTrue(guard.requiresPrimary("bob"), "replica has not been synchronized yet");
+        guard.replicatedUpTo(clock.get());
+        assertFalse(guard.requiresPrimary("bob"));
+
+        clock.addAndGet(10);
+        guard.recordWrite("alice");
+        clock.addAndGet(1_000);
+        assertTrue(guard.requiresPrimary("alice"), "no snapshot taken after the write yet");
+
+        guard.replicatedUpTo(clock.get());
+        assertFalse(guard.requiresPrimary("alice"));
+    }
+
+    @Test
+    void recordWrite_tracksLastWriteOfAnyClient() {
+        ReplicaLagGuard guard = new ReplicaLagGuard(Duration.ofSeconds(1), false, clock::get);
+        assertEquals(Long.MIN_VALUE, guard.lastWrite());
+
+        guard.recordWrite(null);
+
+        assertEquals(1_000, guard.lastWrite());
+    }
+}
@@ -0,0 +1,279 @@
+package com.kiosite.kiositetest.repository.offheap;
+
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.InvalidSortException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapTaskStoreTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 30, 0, 123_456_789);
+
+    private OffHeapTaskStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapTaskStore(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void insert_thenGet_returnsAllFields() {
+        Task task = task("Title", Status.IN_PROGRESS, 0);
+        task.setDescription("Déscription");
+        task.setPriority(2);
+        task.setDueAt(T0.plusDays(3));
+
+        store.insert(task);
+        Task stored = store.get(task.getId()).orElseThrow();
+
+        assertEquals(task.getId(), stored.getId());
+        assertEquals("Title", stored.getTitle());
+        assertEquals("Déscription", stored.getDescription());
+        assertEquals(Status.IN_PROGRESS, stored.getStatus());
+        assertEquals(2, stored.getPriority());
+        assertEquals(T0.plusDays(3), stored.getDueAt());
+        assertEquals("admin", stored.getCreatedBy());
+        assertEquals(T0, stored.getCreatedAt());
+        assertNull(stored.getModifiedBy());
+    }
+
+    @Test
+    void insert_duplicateId_throwsException() {
+        Task task = task("Title", Status.PENDING, 0);
+        store.insert(task);
+
+        assertThrows(IllegalStateException.class, () -> store.insert(task));
+    }
+
+    @Test
+    void insert_growsIndexBeyondInitialCapacity() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Task task = task("Task " + i, Status.PENDING, i);
+            tasks.add(task);
+            store.insert(task);
+        }
+
+        assertEquals(1000, store.count());
+        tasks.forEach(task -> assertEquals(task.getTitle(), store.get(task.getId()).orElseThrow().getTitle()));
+    }
+
+    @Test
+    void replace_updatesFieldsAndStatusCounts() {
+        Task task = task("Title", Status.PENDING, 0);
+        store.insert(task);
+        task.setTitle("Updated");
+        task.setStatus(Status.DONE);
+
+        assertTrue(store.replace(task));
+
+        assertEquals("Updated", store.get(task.getId()).orElseThrow().getTitle());
+        assertEquals(0, store.findAll(Status.PENDING, PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, store.findAll(Status.DONE, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void remove_keepsOtherTasksReachable() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Task task = task("Task " + i, Status.PENDING, i);
+            tasks.add(task);
+            store.insert(task);
+        }
+
+        for (int i = 0; i < 200; i += 2) {
+            assertTrue(store.remove(tasks.get(i).getId()));
+        }
+
+        assertFalse(store.remove(tasks.get(0).getId()));
+        assertEquals(100, store.count());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 1, store.get(tasks.get(i).getId()).isPresent());
+        }
+    }
+
+    @Test
+    void findAll_pagesInCreationOrder() {
+        store.insert(task("First", Status.PENDING, 0));
+        store.insert(task("Second", Status.DONE, 1));
+        store.insert(task("Third", Status.PENDING, 2));
+
+        Page<Task> ascending = store.findAll(Status.PENDING, PageRequest.of(0, 10, Sort.by("createdAt")));
+        Page<Task> descending = store.findAll(null, PageRequest.of(0, 2, Sort.by("createdAt").descending()));
+
+        assertEquals(List.of("First", "Third"), ascending.map(Task::getTitle).getContent());
+        assertEquals(List.of("Third", "Second"), descending.map(Task::getTitle).getContent());
+        assertEquals(3, descending.getTotalElements());
+    }
+
+    @Test
+    void findAll_sortedByOtherProperty_usesBoundedHeap() {
+        store.insert(task("b", Status.PENDING, 0));
+        store.insert(task("d", Status.PENDING, 1));
+        store.insert(task("a", Status.PENDING, 2));
+        store.insert(task("c", Status.PENDING, 3));
+
+        Page<Task> page = store.findAll(null, PageRequest.of(1, 2, Sort.by("title")));
+
+        assertEquals(List.of("c", "d"), page.map(Task::getTitle).getContent());
+    }
+
+    @Test
+    void findAll_sortedInPlace_pagesLikeSortingTasks() {
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Task task = task("Task " + random.nextInt(5), Status.values()[random.nextInt(3)], i);
+            task.setPriority(random.nextBoolean() ? 1 + random.nextInt(3) : null);
+            task.setDueAt(random.nextBoolean() ? T0.plusDays(random.nextInt(3)) : null);
+            tasks.add(task);
+            store.insert(task);
+        }
+        Sort sort = Sort.by(Sort.Order.desc("priority"), Sort.Order.asc("dueAt").nullsLast(), Sort.Order.asc("title"));
+        Comparator<Task> expectedOrder = Comparator
+                .comparing(Task::getPriority, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+                .thenComparing(Task::getDueAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+                .thenComparing(Task::getTitle)
+                .thenComparing(Task::getId);
+        List<UUID> expected = tasks.stream().filter(task -> task.getStatus() == Status.PENDING)
+                .sorted(expectedOrder).map(Task::getId).toList();
+
+        List<UUID> paged = new ArrayList<>();
+        for (int page = 0; page * 7 < expected.size(); page++) {
+            store.findAll(Status.PENDING, PageRequest.of(page, 7, sort)).forEach(task -> paged.add(task.getId()));
+        }
+
+        assertEquals(expected, paged);
+        assertTrue(store.findAll(Status.PENDING, PageRequest.of(100, 7, sort)).isEmpty());
+        assertEquals(tasks.stream().map(Task::getId).sorted(Comparator.reverseOrder()).limit(5).toList(),
+                store.findAll(null, PageRequest.of(0, 5, Sort.by(Sort.Order.desc("id")))).map(Task::getId).getContent());
+    }
+
+    @Test
+    void findAll_sortedByPriorityAndDueAt_honorsNullHandling() {
+        Task undated = task("undated", Status.PENDING, 0);
+        Task later = task("later", Status.PENDING, 1);
+        later.setDueAt(T0.plusDays(2));
+        Task sooner = task("sooner", Status.PENDING, 2);
+        sooner.setDueAt(T0.plusDays(1));
+        Task urgent = task("urgent", Status.PENDING, 3);
+        urgent.setPriority(1);
+        List.of(undated, later, sooner, urgent).forEach(store::insert);
+
+        Sort nullsLast = Sort.by(Sort.Order.asc("priority"), Sort.Order.asc("dueAt").nullsLast());
+        Sort nativeNulls = Sort.by(Sort.Order.asc("priority"), Sort.Order.asc("dueAt"));
+
+        assertEquals(List.of("urgent", "sooner", "later", "undated"),
+                store.findAll(Status.PENDING, PageRequest.of(0, 10, nullsLast)).map(Task::getTitle).getContent());
+        assertEquals(List.of("urgent", "undated", "sooner"),
+                store.findAll(Status.PENDING, PageRequest.of(0, 3, nativeNulls)).map(Task::getTitle).getContent());
+    }
+
+    @Test
+    void findAll_unknownSortProperty_throwsException() {
+        store.insert(task("a", Status.PENDING, 0));
+
+        assertThrows(InvalidSortException.class, () -> store.findAll(null, PageRequest.of(0, 10, Sort.by("unknown"))));
+    }
+
+    @Test
+    void snapshot_thenRestore_keepsOnlyLiveTasks(@TempDir Path dir) throws Exception {
+        Task kept = task("Kept", Status.DONE, 0);
+        kept.setDueAt(T0.plusHours(5));
+        Task removed = task("Removed", Status.PENDING, 1);
+        store.insert(kept);
+        store.insert(removed);
+        store.remove(removed.getId());
+        Path file = dir.resolve("tasks.snapshot");
+
+        store.snapshot(file);
+        OffHeapTaskStore restored = new OffHeapTaskStore(4);
+        restored.restore(file);
+
+        try {
+            assertEquals(1, restored.count());
+            Task task = restored.get(kept.getId()).orElseThrow();
+            assertEquals("Kept", task.getTitle());
+            assertEquals(Status.DONE, task.getStatus());
+            assertEquals(T0, task.getCreatedAt());
+            assertEquals(Task.DEFAULT_PRIORITY, task.getPriority());
+            assertEquals(T0.plusHours(5), task.getDueAt());
+            assertTrue(restored.get(removed.getId()).isEmpty());
+        } finally {
+            restored.close();
+        }
+    }
+
+    @Test
+    void restore_truncatedSnapshot_keepsCurrentTasks(@TempDir Path dir) throws Exception {
+        store.insert(task("Snapshotted", Status.PENDING, 0));
+        store.insert(task("Also snapshotted", Status.PENDING, 1));
+        Path file = dir.resolve("tasks.snapshot");
+        store.snapshot(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+        Task current = task("Current", Status.DONE, 2);
+        store.insert(current);
+
+        assertThrows(IOException.class, () -> store.restore(file));
+
+        assertEquals(3, store.count());
+        assertEquals("Current", store.get(current.getId()).orElseThrow().getTitle());
+        assertEquals(1, store.findAll(Status.DONE, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void findChangedAfter_returnsTasksAfterPositionInOrder() {
+        Task first = task("First", Status.PENDING, 1);
+        Task second = task("Second", Status.PENDING, 2);
+        Task tied = task("Tied", Status.PENDING, 2);
+        Task late = task("Late", Status.PENDING, 10);
+        Task deleted = task("Deleted", Status.PENDING, 3);
+        first.setId(UUID.fromString("80000000-0000-0000-0000-000000000000"));
+        second.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        tied.setId(UUID.fromString("ffffffff-0000-0000-0000-000000000000"));
+        List.of(late, tied, second, first, deleted).forEach(store::insert);
+        store.remove(deleted.getId());
+
+        List<Task> changed = store.findChangedAfter(T0, new UUID(0, 0), T0.plusSeconds(5), 10);
+        assertEquals(List.of("First", "Second", "Tied"), changed.stream().map(Task::getTitle).toList());
+
+        List<Task> afterTie = store.findChangedAfter(T0.plusSeconds(2), second.getId(), T0.plusSeconds(5), 10);
+        assertEquals(List.of("Tied"), afterTie.stream().map(Task::getTitle).toList());
+
+        List<Task> limited = store.findChangedAfter(T0, new UUID(0, 0), T0.plusSeconds(20), 2);
+        assertEquals(List.of("First", "Second"), limited.stream().map(Task::getTitle).toList());
+    }
+
+    private static Task task(String title, Status status, int createdOffset) {
+        Task task = Task.builder().id(UUID.randomUUID()).title(title).status(status).priority(Task.DEFAULT_PRIORITY).build();
+        task.setCreatedBy("admin");
+        task.setCreatedAt(T0.plusSeconds(createdOffset));
+        task.setUpdatedAt(T0.plusSeconds(createdOffset));
+        return task;
+    }
+}
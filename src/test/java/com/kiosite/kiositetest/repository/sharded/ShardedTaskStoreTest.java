@@ -0,0 +1,202 @@
+package com.kiosite.kiositetest.repository.sharded;
+
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.entity.TaskTombstone;
+import com.kiosite.kiositetest.exception.InvalidSortException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedTaskStoreTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 30, 0, 123_456_000);
+    private static final int SHARDS = 4;
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+    private ShardedTaskStore store;
+    /**
+     * Holds the same tasks in a single shard, giving the order of a single database.
+     */
+    private ShardedTaskStore reference;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < SHARDS; i++) {
+            dataSources.add(dataSource());
+        }
+        store = new ShardedTaskStore(dataSources);
+        reference = new ShardedTaskStore(List.of(dataSource()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+        reference.close();
+    }
+
+    @Test
+    void insert_storesEachTaskInTheShardOfItsId() {
+        List<Task> tasks = insertTasks(40);
+
+        for (int shard = 0; shard < SHARDS; shard++) {
+            int index = shard;
+            long expected = tasks.stream().filter(task -> store.shardOf(task.getId()) == index).count();
+            assertEquals(expected, new JdbcTemplate(dataSources.get(shard)).queryForObject("SELECT COUNT(*) FROM task", Long.class));
+        }
+        assertEquals(40, store.count());
+        Task first = tasks.get(0);
+        Task stored = store.get(first.getId()).orElseThrow();
+        assertEquals(first.getTitle(), stored.getTitle());
+        assertEquals(first.getStatus(), stored.getStatus());
+        assertEquals(first.getDueAt(), stored.getDueAt());
+        assertEquals(first.getCreatedAt(), stored.getCreatedAt());
+    }
+
+    @Test
+    void findAll_mergesShardPagesInSingleDatabaseOrder() {
+        insertTasks(60);
+        List<Sort> sorts = List.of(
+                Sort.by("createdAt"),
+                Sort.by(Sort.Order.desc("title")),
+                Sort.by("status", "priority"),
+                Sort.by(Sort.Order.asc("dueAt").nullsLast(), Sort.Order.desc("updatedAt")),
+                Sort.by("id"),
+                Sort.by(Sort.Order.desc("id")),
+                Sort.unsorted());
+
+        for (Sort sort : sorts) {
+            for (Status status : new Status[]{null, Status.PENDING}) {
+                for (int page = 0; page < 5; page++) {
+                    PageRequest pageRequest = PageRequest.of(page, 7, sort);
+                    Page<Task> expected = reference.findAll(status, pageRequest);
+                    Page<Task> actual = store.findAll(status, pageRequest);
+
+                    assertEquals(ids(expected.getContent()), ids(actual.getContent()), sort + " " + status + " page " + page);
+                    assertEquals(expected.getTotalElements(), actual.getTotalElements());
+                }
+            }
+        }
+    }
+
+    @Test
+    void findAll_unknownSortProperty_throwsException() {
+        assertThrows(InvalidSortException.class, () -> store.findAll(null, PageRequest.of(0, 10, Sort.by("password"))));
+    }
+
+    @Test
+    void findNextAndChangedAfter_mergeInSingleDatabaseOrder() {
+        List<Task> tasks = insertTasks(60);
+        Task middle = tasks.get(30);
+
+        assertEquals(ids(reference.findNext(Status.PENDING, 10)), ids(store.findNext(Status.PENDING, 10)));
+        assertEquals(ids(reference.findChangedAfter(middle.getUpdatedAt(), middle.getId(), T0.plusHours(1), 8)),
+                ids(store.findChangedAfter(middle.getUpdatedAt(), middle.getId(), T0.plusHours(1), 8)));
+    }
+
+    @Test
+    void getAll_findsTasksAcrossShards() {
+        List<Task> tasks = insertTasks(20);
+        UUID unknown = UUID.randomUUID();
+
+        Map<UUID, Task> found = store.getAll(List.of(tasks.get(3).getId(), unknown, tasks.get(17).getId(), tasks.get(3).getId()));
+
+        assertEquals(2, found.size());
+        assertEquals(tasks.get(17).getTitle(), found.get(tasks.get(17).getId()).getTitle());
+        assertFalse(found.containsKey(unknown));
+    }
+
+    @Test
+    void replace_unlessStatus_leavesTaskInThatStatusUnchanged() {
+        Task task = insertTasks(1).get(0);
+        task.setStatus(Status.IN_PROGRESS);
+        assertTrue(store.replace(task, null).isPresent());
+
+        Task done = Task.builder().id(task.getId()).title("Done").status(Status.DONE).priority(1).build();
+        assertTrue(store.replace(done, Status.IN_PROGRESS).isEmpty());
+        assertEquals(task.getTitle(), store.get(task.getId()).orElseThrow().getTitle());
+
+        Task renamed = Task.builder().id(task.getId()).title("Renamed").priority(1).build();
+        Task stored = store.replace(renamed, Status.DONE).orElseThrow();
+        assertEquals("Renamed", stored.getTitle());
+        assertEquals(Status.IN_PROGRESS, stored.getStatus());
+        assertEquals(task.getCreatedAt(), stored.getCreatedAt());
+    }
+
+    @Test
+    void replaceAndRemove_updateTheTaskShard() {
+        List<Task> tasks = insertTasks(10);
+        Task task = tasks.get(4);
+        task.setStatus(Status.DONE);
+        task.setDueAt(null);
+
+        assertEquals(Status.DONE, store.replace(task, null).orElseThrow().getStatus());
+        assertEquals(Status.DONE, store.get(task.getId()).orElseThrow().getStatus());
+
+        assertTrue(store.remove(task.getId(), T0.plusMinutes(5)));
+        assertFalse(store.remove(task.getId(), T0.plusMinutes(6)));
+        assertTrue(store.replace(task, null).isEmpty());
+        assertTrue(store.get(task.getId()).isEmpty());
+        List<TaskTombstone> tombstones = store.findDeletedAfter(T0, new UUID(0, 0), T0.plusHours(1), 10);
+        assertEquals(List.of(new TaskTombstone(task.getId(), T0.plusMinutes(5))), tombstones);
+
+        assertEquals(1, store.deleteTombstonesBefore(T0.plusMinutes(10)));
+        assertTrue(store.findDeletedAfter(T0, new UUID(0, 0), T0.plusHours(1), 10).isEmpty());
+    }
+
+    @Test
+    void merge_skipsAndLimitsTheMergedOrder() {
+        List<List<Integer>> runs = List.of(List.of(1, 4, 7), List.of(2, 5), List.of(), List.of(3, 6, 8));
+
+        assertEquals(List.of(3, 4, 5, 6), ShardedTaskStore.merge(runs, Integer::compare, 2, 4));
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), ShardedTaskStore.merge(runs, Integer::compare, 0, Long.MAX_VALUE));
+    }
+
+    /**
+     * Inserts tasks into both stores, with few distinct values so that orderings have ties.
+     */
+    private List<Task> insertTasks(int count) {
+        Random random = new Random(42);
+        Status[] statuses = Status.values();
+        return IntStream.range(0, count).mapToObj(i -> {
+            Task task = Task.builder()
+                    .id(UUID.randomUUID())
+                    .title("Task " + random.nextInt(10))
+                    .description(random.nextBoolean() ? "Description " + i : null)
+                    .status(statuses[random.nextInt(statuses.length)])
+                    .priority(1 + random.nextInt(Task.LOWEST_PRIORITY))
+                    .dueAt(random.nextBoolean() ? T0.plusDays(random.nextInt(3)) : null)
+                    .build();
+            task.setCreatedAt(T0.plusSeconds(i));
+            task.setUpdatedAt(T0.plusSeconds(random.nextInt(count)));
+            task.setCreatedBy("admin");
+            store.insert(task);
+            reference.insert(task);
+            return task;
+        }).toList();
+    }
+
+    private static List<UUID> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    private static DataSource dataSource() {
+        return new DriverManagerDataSource("jdbc:hsqldb:mem:shard-test-" + UUID.randomUUID(), "sa", "");
+    }
+}
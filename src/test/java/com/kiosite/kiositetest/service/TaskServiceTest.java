@@ -1,17 +1,22 @@
 package com.kiosite.kiositetest.service;
 
 import com.kiosite.kiositetest.controller.dto.TaskRequestDTO;
+import com.kiosite.kiositetest.entity.ArchivedTask;
 import com.kiosite.kiositetest.entity.Status;
 import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.entity.TaskTombstone;
 import com.kiosite.kiositetest.exception.InvalidStatusException;
 import com.kiosite.kiositetest.exception.NotFoundException;
+import com.kiosite.kiositetest.repository.ArchivedTaskRepository;
 import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.repository.TaskTombstoneRepository;
 import com.kiosite.kiositetest.service.impl.TaskServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.data.domain.*;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +27,18 @@ class TaskServiceImplTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private TaskExistenceFilter taskExistenceFilter;
+
+    @Mock
+    private TaskReadModel taskReadModel;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -32,6 +49,7 @@ class TaskServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(taskExistenceFilter.mightContain(any())).thenReturn(true);
         taskId = UUID.randomUUID();
         task = Task.builder()
                 .id(taskId)
@@ -67,6 +85,17 @@ class TaskServiceImplTest {
         verify(taskRepository, times(1)).save(any(Task.class));
     }
 
+    @Test
+    void createTask_savesDefaultPriorityIfNull() {
+        taskRequestDTO.setDueAt(LocalDateTime.of(2024, 1, 31, 17, 0));
+        when(taskRepository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Task result = taskService.createTask(taskRequestDTO);
+
+        assertEquals(Task.DEFAULT_PRIORITY, result.getPriority());
+        assertEquals(LocalDateTime.of(2024, 1, 31, 17, 0), result.getDueAt());
+    }
+
     @Test
     void getAllTasks_returnsPagedTasks() {
         Pageable pageable = PageRequest.of(0, 10);
@@ -97,6 +126,83 @@ class TaskServiceImplTest {
         verify(taskRepository, times(1)).findById(taskId);
     }
 
+    @Test
+    void getAllTasks_whenReadModelServesPage_skipsRepository() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(taskReadModel.findAll(null, pageable)).thenReturn(Optional.of(new PageImpl<>(List.of(task))));
+
+        Page<Task> result = taskService.getAllTasks(null, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        verify(taskRepository, never()).findAll(pageable);
+    }
+
+    @Test
+    void getTaskById_whenReadModelReady_skipsRepository() {
+        when(taskReadModel.isReady()).thenReturn(true);
+        when(taskReadModel.findById(taskId)).thenReturn(Optional.of(task));
+
+        Task result = taskService.getTaskById(taskId);
+
+        assertEquals(taskId, result.getId());
+        verify(taskRepository, never()).findById(any());
+    }
+
+    @Test
+    void getTaskById_whenRejectedByFilter_skipsRepository() {
+        when(taskExistenceFilter.mightContain(taskId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> taskService.getTaskById(taskId));
+        verify(taskRepository, never()).findById(any());
+    }
+
+    @Test
+    void getTasksByIds_queriesOnceAndKeepsRequestOrder() {
+        UUID otherId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        UUID filteredId = UUID.randomUUID();
+        Task other = Task.builder().id(otherId).title("Other").build();
+        when(taskExistenceFilter.mightContain(filteredId)).thenReturn(false);
+        when(taskRepository.findAllById(List.of(otherId, missingId, taskId))).thenReturn(List.of(task, other));
+
+        TaskService.Lookup result = taskService.getTasksByIds(List.of(otherId, missingId, filteredId, taskId, otherId));
+
+        assertEquals(List.of(other, task), result.tasks());
+        assertEquals(List.of(missingId, filteredId), result.missing());
+        verify(taskRepository, times(1)).findAllById(any());
+        verify(taskRepository, never()).findById(any());
+    }
+
+    @Test
+    void getTasksByIds_whenReadModelReady_skipsRepository() {
+        UUID missingId = UUID.randomUUID();
+        when(taskReadModel.isReady()).thenReturn(true);
+        when(taskReadModel.findById(taskId)).thenReturn(Optional.of(task));
+        when(taskReadModel.findById(missingId)).thenReturn(Optional.empty());
+
+        TaskService.Lookup result = taskService.getTasksByIds(List.of(missingId, taskId));
+
+        assertEquals(List.of(task), result.tasks());
+        assertEquals(List.of(missingId), result.missing());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getNextTasks_queriesPendingTasksWithLimit() {
+        when(taskRepository.findNextByStatus(Status.PENDING, Limit.of(5))).thenReturn(List.of(task));
+
+        assertEquals(List.of(task), taskService.getNextTasks(5));
+    }
+
+    @Test
+    void createTask_registersIdInFilter() {
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+
+        taskService.createTask(taskRequestDTO);
+
+        verify(taskExistenceFilter, times(1)).add(taskId);
+    }
+
     @Test
     void updateTask_updatesFieldsAndStatus() throws InvalidStatusException {
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
@@ -109,6 +215,21 @@ class TaskServiceImplTest {
         verify(taskRepository, times(1)).save(task);
     }
 
+    @Test
+    void updateTask_omittedPriorityAndDueAt_resetsThem() throws InvalidStatusException {
+        task.setPriority(1);
+        task.setDueAt(LocalDateTime.of(2024, 1, 31, 17, 0));
+        taskRequestDTO.setStatus(null);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+
+        Task result = taskService.updateTask(taskId, taskRequestDTO);
+
+        assertEquals(Task.DEFAULT_PRIORITY, result.getPriority());
+        assertNull(result.getDueAt());
+        assertEquals(Status.PENDING, result.getStatus());
+    }
+
     @Test
     void updateTask_invalidStatus_throwsException() {
         task.setStatus(Status.IN_PROGRESS);
@@ -127,6 +248,10 @@ class TaskServiceImplTest {
         taskService.deleteTask(taskId);
 
         verify(taskRepository, times(1)).delete(task);
+        ArgumentCaptor<TaskTombstone> tombstone = ArgumentCaptor.forClass(TaskTombstone.class);
+        verify(taskTombstoneRepository).save(tombstone.capture());
+        assertEquals(taskId, tombstone.getValue().getId());
+        assertNotNull(tombstone.getValue().getDeletedAt());
     }
 
     @Test
@@ -140,4 +265,16 @@ class TaskServiceImplTest {
         assertEquals(1, result.getTotalElements());
         verify(taskRepository, times(1)).findByStatus(Status.PENDING, pageable);
     }
+
+    @Test
+    void getArchivedTasks_returnsPagedArchivedTasks() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ArchivedTask> page = new PageImpl<>(List.of(ArchivedTask.fromTask(task, LocalDateTime.now())));
+        when(archivedTaskRepository.findAll(pageable)).thenReturn(page);
+
+        Page<ArchivedTask> result = taskService.getArchivedTasks(null, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        verify(taskRepository, never()).findAll(pageable);
+    }
 }
@@ -0,0 +1,89 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BloomTaskExistenceFilterTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private BloomTaskExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        filter = new BloomTaskExistenceFilter(taskRepository, true, 1000, 0.01);
+    }
+
+    @Test
+    void mightContain_beforeFirstBuild_returnsTrue() {
+        assertTrue(filter.mightContain(UUID.randomUUID()));
+    }
+
+    @Test
+    void rebuild_containsStoredIds() {
+        List<UUID> ids = IntStream.range(0, 500).mapToObj(i -> UUID.randomUUID()).toList();
+        when(taskRepository.streamAllIds()).thenReturn(ids.stream());
+
+        filter.rebuild();
+
+        ids.forEach(id -> assertTrue(filter.mightContain(id)));
+    }
+
+    @Test
+    void rebuild_rejectsMostUnknownIds() {
+        when(taskRepository.streamAllIds()).thenReturn(Stream.of(UUID.randomUUID()));
+        filter.rebuild();
+
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain(UUID.randomUUID()))
+                .count();
+
+        assertTrue(falsePositives < 100, "too many false positives: " + falsePositives);
+    }
+
+    @Test
+    void add_afterBuild_isContained() {
+        when(taskRepository.streamAllIds()).thenReturn(Stream.empty());
+        filter.rebuild();
+        UUID id = UUID.randomUUID();
+
+        filter.add(id);
+
+        assertTrue(filter.mightContain(id));
+    }
+
+    @Test
+    void rebuild_dropsDeletedIds() {
+        UUID deleted = UUID.randomUUID();
+        filter.rebuild();
+        filter.add(deleted);
+        when(taskRepository.streamAllIds()).thenReturn(Stream.empty());
+
+        filter.rebuild();
+
+        assertFalse(filter.mightContain(deleted));
+    }
+
+    @Test
+    void rebuild_whenDisabled_acceptsEveryId() {
+        filter = new BloomTaskExistenceFilter(taskRepository, false, 1000, 0.01);
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain(UUID.randomUUID()));
+        verifyNoInteractions(taskRepository);
+    }
+}
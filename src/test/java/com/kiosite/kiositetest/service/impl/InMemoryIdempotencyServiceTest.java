@@ -0,0 +1,181 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.exception.IdempotencyKeyInProgressException;
+import com.kiosite.kiositetest.exception.IdempotencyKeyReuseException;
+import com.kiosite.kiositetest.service.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryIdempotencyServiceTest {
+
+    private AtomicLong clock;
+    private InMemoryIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        service = new InMemoryIdempotencyService(Duration.ofMinutes(1), 2, Duration.ofSeconds(5), clock::get);
+    }
+
+    @Test
+    void execute_replaysStoredResult() {
+        AtomicInteger calls = new AtomicInteger();
+
+        IdempotencyService.Result<Integer> first = service.execute("admin", "k1", "body", calls::incrementAndGet);
+        IdempotencyService.Result<Integer> second = service.execute("admin", "k1", "body", calls::incrementAndGet);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(1, second.value());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_scopesKeysByPrincipal() {
+        AtomicInteger calls = new AtomicInteger();
+
+        service.execute("admin", "k1", "body", calls::incrementAndGet);
+        IdempotencyService.Result<Integer> other = service.execute("other", "k1", "body", calls::incrementAndGet);
+
+        assertFalse(other.replayed());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_differentFingerprint_throwsException() {
+        service.execute("admin", "k1", "body", () -> 1);
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> service.execute("admin", "k1", "other body", () -> 2));
+    }
+
+    @Test
+    void execute_afterTtl_runsActionAgain() {
+        AtomicInteger calls = new AtomicInteger();
+        service.execute("admin", "k1", "body", calls::incrementAndGet);
+
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        IdempotencyService.Result<Integer> result = service.execute("admin", "k1", "body", calls::incrementAndGet);
+
+        assertFalse(result.replayed());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_evictsOldestEntriesWhenFull() {
+        service.execute("admin", "k1", "body", () -> 1);
+        service.execute("admin", "k2", "body", () -> 2);
+        service.execute("admin", "k3", "body", () -> 3);
+
+        assertEquals(2, service.size());
+        assertFalse(service.execute("admin", "k1", "body", () -> 4).replayed());
+    }
+
+    @Test
+    void execute_whenFull_keepsExecutionsInProgress() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyService.Result<Integer>> running = executor.submit(() ->
+                    service.execute("admin", "k1", "body", () -> {
+                        started.countDown();
+                        await(release);
+                        return calls.incrementAndGet();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            service.execute("admin", "k2", "body", () -> 2);
+            service.execute("admin", "k3", "body", () -> 3);
+            release.countDown();
+
+            assertFalse(running.get(5, TimeUnit.SECONDS).replayed());
+            assertTrue(service.execute("admin", "k1", "body", calls::incrementAndGet).replayed());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_duplicateWaitingTooLong_throwsException() throws Exception {
+        InMemoryIdempotencyService impatient = new InMemoryIdempotencyService(Duration.ofMinutes(1), 2, Duration.ofMillis(50), clock::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyService.Result<Integer>> running = executor.submit(() ->
+                    impatient.execute("admin", "k1", "body", () -> {
+                        started.countDown();
+                        await(release);
+                        return 1;
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(IdempotencyKeyInProgressException.class, () -> impatient.execute("admin", "k1", "body", () -> 2));
+            release.countDown();
+            assertEquals(1, running.get(5, TimeUnit.SECONDS).value());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_failedAction_isNotStored() {
+        assertThrows(IllegalStateException.class, () -> service.execute("admin", "k1", "body", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        IdempotencyService.Result<Integer> retry = service.execute("admin", "k1", "body", () -> 1);
+
+        assertFalse(retry.replayed());
+        assertEquals(1, retry.value());
+    }
+
+    @Test
+    void execute_concurrentDuplicates_runActionOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<IdempotencyService.Result<Integer>> first = executor.submit(() ->
+                    service.execute("admin", "k1", "body", () -> {
+                        started.countDown();
+                        await(release);
+                        return calls.incrementAndGet();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<IdempotencyService.Result<Integer>> duplicate = executor.submit(() ->
+                    service.execute("admin", "k1", "body", calls::incrementAndGet));
+            release.countDown();
+
+            assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+            assertTrue(duplicate.get(5, TimeUnit.SECONDS).replayed());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InMemoryTaskReadModelTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryTaskReadModel readModel;
+    private Task first;
+    private Task second;
+    private Task third;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        readModel = new InMemoryTaskReadModel(taskRepository, entityManager, transactionManager, true);
+        first = task("First", Status.PENDING, 1);
+        second = task("Second", Status.DONE, 2);
+        third = task("Third", Status.PENDING, 3);
+        when(taskRepository.streamAll()).thenReturn(Stream.of(third, first, second));
+        readModel.rebuild();
+    }
+
+    @Test
+    void rebuild_makesModelReady() {
+        assertTrue(readModel.isReady());
+        assertEquals("First", readModel.findById(first.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void findAll_pagesInCreationOrder() {
+        Page<Task> page = readModel.findAll(null, PageRequest.of(1, 2, Sort.by("createdAt"))).orElseThrow();
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("Third"), page.map(Task::getTitle).getContent());
+    }
+
+    @Test
+    void findAll_filtersByStatusInDescendingOrder() {
+        Page<Task> page = readModel.findAll(Status.PENDING, PageRequest.of(0, 10, Sort.by("createdAt").descending()))
+                .orElseThrow();
+
+        assertEquals(List.of("Third", "First"), page.map(Task::getTitle).getContent());
+    }
+
+    @Test
+    void findAll_unsupportedSort_returnsEmpty() {
+        assertTrue(readModel.findAll(null, PageRequest.of(0, 10, Sort.by("title"))).isEmpty());
+    }
+
+    @Test
+    void upsert_movesTaskBetweenStatuses() {
+        Task updated = task("First", Status.DONE, 1);
+        updated.setId(first.getId());
+        updated.setUpdatedAt(T0.plusDays(1));
+
+        readModel.upsert(updated);
+
+        assertEquals(2, readModel.findAll(Status.DONE, PageRequest.of(0, 10)).orElseThrow().getTotalElements());
+        assertEquals(1, readModel.findAll(Status.PENDING, PageRequest.of(0, 10)).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    void upsert_olderVersion_isIgnored() {
+        Task stale = task("Stale", Status.PENDING, 1);
+        stale.setId(first.getId());
+        stale.setUpdatedAt(T0.minusDays(1));
+
+        readModel.upsert(stale);
+
+        assertEquals("First", readModel.findById(first.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void removeAll_dropsTasks() {
+        readModel.removeAll(List.of(first.getId(), second.getId()));
+
+        assertTrue(readModel.findById(first.getId()).isEmpty());
+        assertEquals(1, readModel.findAll(null, PageRequest.of(0, 10)).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    void findById_returnsCopy() {
+        readModel.findById(first.getId()).orElseThrow().setTitle("Changed");
+
+        assertEquals("First", readModel.findById(first.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void verify_reloadsAfterRepeatedMismatch() {
+        when(taskRepository.countByStatus(Status.PENDING)).thenReturn(5L);
+        when(taskRepository.streamAll()).thenReturn(Stream.of(first));
+
+        readModel.verify();
+        verify(taskRepository, times(1)).streamAll();
+        readModel.verify();
+
+        verify(taskRepository, times(2)).streamAll();
+        assertTrue(readModel.findById(second.getId()).isEmpty());
+    }
+
+    @Test
+    void disabledModel_isNeverReady() {
+        readModel = new InMemoryTaskReadModel(taskRepository, entityManager, transactionManager, false);
+
+        readModel.rebuild();
+
+        assertFalse(readModel.isReady());
+        assertTrue(readModel.findAll(null, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private static Task task(String title, Status status, int createdOffset) {
+        Task task = Task.builder().id(UUID.randomUUID()).title(title).status(status).build();
+        task.setCreatedAt(T0.plusMinutes(createdOffset));
+        task.setUpdatedAt(T0);
+        return task;
+    }
+}
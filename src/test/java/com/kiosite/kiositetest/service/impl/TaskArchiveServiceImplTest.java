@@ -0,0 +1,139 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.entity.TaskTombstone;
+import com.kiosite.kiositetest.repository.ArchivedTaskRepository;
+import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.repository.TaskTombstoneRepository;
+import com.kiosite.kiositetest.service.TaskChangeService.ChangeCursor;
+import com.kiosite.kiositetest.service.TaskChangeService.Changes;
+import com.kiosite.kiositetest.service.TaskReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TaskArchiveServiceImplTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private TaskReadModel taskReadModel;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskArchiveServiceImpl archiveService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        archiveService = new TaskArchiveServiceImpl(taskRepository, archivedTaskRepository, taskTombstoneRepository, taskReadModel,
+                transactionManager, true, Duration.ofDays(30), 2, 10, Duration.ZERO);
+    }
+
+    @Test
+    void archiveCompletedTasks_movesBatchesUntilShortBatch() {
+        when(taskRepository.findByStatusAndUpdatedAtBefore(eq(Status.DONE), any(), any(Pageable.class)))
+                .thenReturn(List.of(doneTask(), doneTask()), List.of(doneTask()));
+        when(taskRepository.deleteByIdInAndStatusAndUpdatedAtBefore(anyCollection(), eq(Status.DONE), any()))
+                .thenReturn(2, 1);
+
+        int archived = archiveService.archiveCompletedTasks();
+
+        assertEquals(3, archived);
+        verify(archivedTaskRepository, times(2)).saveAll(anyList());
+        verify(taskTombstoneRepository, times(2)).saveAll(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        verify(taskReadModel, times(2)).removeAll(anyList());
+    }
+
+    @Test
+    void archiveCompletedTasks_concurrentModification_rollsBackBatch() {
+        when(taskRepository.findByStatusAndUpdatedAtBefore(eq(Status.DONE), any(), any(Pageable.class)))
+                .thenReturn(List.of(doneTask(), doneTask()));
+        when(taskRepository.deleteByIdInAndStatusAndUpdatedAtBefore(anyCollection(), eq(Status.DONE), any()))
+                .thenReturn(1);
+
+        int archived = archiveService.archiveCompletedTasks();
+
+        assertEquals(0, archived);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void archiveCompletedTasks_batchesCommittedLater_stayAfterCursorsHandedOutMeanwhile() {
+        AtomicReference<LocalDateTime> now = new AtomicReference<>(LocalDateTime.of(2024, 1, 31, 17, 0));
+        Duration settleTime = Duration.ofSeconds(5);
+        archiveService = new TaskArchiveServiceImpl(taskRepository, archivedTaskRepository, taskTombstoneRepository, taskReadModel,
+                transactionManager, true, Duration.ofDays(30), 2, 10, Duration.ZERO, now::get);
+        TaskChangeServiceImpl changeService = new TaskChangeServiceImpl(taskRepository, taskTombstoneRepository, transactionManager,
+                settleTime, Duration.ofDays(30), now::get);
+        List<TaskTombstone> tombstones = new ArrayList<>();
+        when(taskTombstoneRepository.saveAll(anyList())).thenAnswer(inv -> {
+            tombstones.addAll(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(taskTombstoneRepository.findDeletedAfter(any(), any(), any(), any())).thenAnswer(inv -> {
+            ChangeCursor after = new ChangeCursor(inv.getArgument(0), inv.getArgument(1));
+            LocalDateTime until = inv.getArgument(2);
+            return tombstones.stream()
+                    .filter(tombstone -> new ChangeCursor(tombstone.getDeletedAt(), tombstone.getId()).compareTo(after) > 0)
+                    .filter(tombstone -> !tombstone.getDeletedAt().isAfter(until))
+                    .toList();
+        });
+        List<Task> firstBatch = List.of(doneTask(), doneTask());
+        List<Task> secondBatch = List.of(doneTask());
+        AtomicReference<ChangeCursor> cursor = new AtomicReference<>();
+        when(taskRepository.findByStatusAndUpdatedAtBefore(eq(Status.DONE), any(), any(Pageable.class)))
+                .thenReturn(firstBatch)
+                .thenAnswer(inv -> {
+                    // A client syncs between the batches, which run further apart than the settle time
+                    now.set(now.get().plus(settleTime.multipliedBy(2)));
+                    cursor.set(changeService.getChanges(null, 100).next());
+                    return secondBatch;
+                });
+        when(taskRepository.deleteByIdInAndStatusAndUpdatedAtBefore(anyCollection(), eq(Status.DONE), any()))
+                .thenReturn(2, 1);
+
+        archiveService.archiveCompletedTasks();
+        now.set(now.get().plus(settleTime.multipliedBy(2)));
+        Changes changes = changeService.getChanges(cursor.get(), 100);
+
+        assertEquals(List.of(secondBatch.get(0).getId()), changes.deleted());
+    }
+
+    @Test
+    void archiveCompletedTasks_nothingToArchive_returnsZero() {
+        int archived = archiveService.archiveCompletedTasks();
+
+        assertEquals(0, archived);
+        verifyNoInteractions(archivedTaskRepository);
+    }
+
+    private static Task doneTask() {
+        return Task.builder().id(UUID.randomUUID()).title("Done").status(Status.DONE).build();
+    }
+}
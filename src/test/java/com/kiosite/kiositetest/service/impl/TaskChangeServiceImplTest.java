@@ -0,0 +1,108 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.entity.TaskTombstone;
+import com.kiosite.kiositetest.exception.CursorExpiredException;
+import com.kiosite.kiositetest.exception.InvalidCursorException;
+import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.repository.TaskTombstoneRepository;
+import com.kiosite.kiositetest.service.TaskChangeService.ChangeCursor;
+import com.kiosite.kiositetest.service.TaskChangeService.Changes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TaskChangeServiceImplTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime base = LocalDateTime.now().minusHours(1);
+    private TaskChangeServiceImpl changeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        changeService = new TaskChangeServiceImpl(taskRepository, taskTombstoneRepository, transactionManager,
+                Duration.ofSeconds(5), Duration.ofDays(30));
+    }
+
+    @Test
+    void getChanges_mergesTasksAndTombstonesInPositionOrder() {
+        Task first = task(base.plusSeconds(1));
+        Task third = task(base.plusSeconds(3));
+        TaskTombstone second = new TaskTombstone(UUID.randomUUID(), base.plusSeconds(2));
+        when(taskRepository.findChangedAfter(any(), any(), any(), eq(Limit.of(11)))).thenReturn(List.of(first, third));
+        when(taskTombstoneRepository.findDeletedAfter(any(), any(), any(), eq(Limit.of(11)))).thenReturn(List.of(second));
+
+        Changes changes = changeService.getChanges(new ChangeCursor(base, UUID.randomUUID()), 10);
+
+        assertEquals(List.of(first, third), changes.tasks());
+        assertEquals(List.of(second.getId()), changes.deleted());
+        assertFalse(changes.hasMore());
+        // Caught up: the cursor moves to the settle horizon, past the last change
+        assertTrue(changes.next().compareTo(ChangeCursor.of(third)) > 0);
+        assertTrue(changes.next().at().isAfter(LocalDateTime.now().minusSeconds(10)));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void getChanges_fullPage_continuesFromLastChange() {
+        Task first = task(base.plusSeconds(1));
+        Task second = task(base.plusSeconds(2));
+        TaskTombstone third = new TaskTombstone(UUID.randomUUID(), base.plusSeconds(3));
+        when(taskRepository.findChangedAfter(any(), any(), any(), any())).thenReturn(List.of(first, second));
+        when(taskTombstoneRepository.findDeletedAfter(any(), any(), any(), any())).thenReturn(List.of(third));
+
+        Changes changes = changeService.getChanges(null, 2);
+
+        assertEquals(List.of(first, second), changes.tasks());
+        assertTrue(changes.deleted().isEmpty());
+        assertTrue(changes.hasMore());
+        assertEquals(ChangeCursor.of(second), changes.next());
+        verify(taskRepository).findChangedAfter(eq(ChangeCursor.START.at()), eq(ChangeCursor.START.id()), any(), eq(Limit.of(3)));
+    }
+
+    @Test
+    void getChanges_cursorOlderThanRetention_throws() {
+        ChangeCursor since = new ChangeCursor(LocalDateTime.now().minusDays(31), UUID.randomUUID());
+
+        assertThrows(CursorExpiredException.class, () -> changeService.getChanges(since, 10));
+        verifyNoInteractions(taskRepository, taskTombstoneRepository);
+    }
+
+    @Test
+    void changeCursor_encodesAndOrdersIdsAsUnsignedBytes() {
+        ChangeCursor low = new ChangeCursor(base, UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff"));
+        ChangeCursor high = new ChangeCursor(base, UUID.fromString("80000000-0000-0000-0000-000000000000"));
+
+        assertTrue(low.compareTo(high) < 0);
+        assertTrue(high.compareTo(new ChangeCursor(base.plusNanos(1000), low.id())) < 0);
+        assertEquals(high, ChangeCursor.decode(high.encode()));
+        assertThrows(InvalidCursorException.class, () -> ChangeCursor.decode("bm90IGEgY3Vyc29y"));
+    }
+
+    private static Task task(LocalDateTime updatedAt) {
+        Task task = Task.builder().id(UUID.randomUUID()).title("Task").build();
+        task.setUpdatedAt(updatedAt);
+        return task;
+    }
+}
@@ -0,0 +1,272 @@
+package com.kiosite.kiositetest.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiosite.kiositetest.entity.ImportFormat;
+import com.kiosite.kiositetest.entity.ImportJob;
+import com.kiosite.kiositetest.entity.ImportStatus;
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import com.kiosite.kiositetest.exception.ImportFormatMismatchException;
+import com.kiosite.kiositetest.repository.ImportJobRepository;
+import com.kiosite.kiositetest.repository.TaskRepository;
+import com.kiosite.kiositetest.service.TaskExistenceFilter;
+import com.kiosite.kiositetest.service.TaskImportService;
+import com.kiosite.kiositetest.service.TaskReadModel;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TaskImportServiceImplTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+
+    @Mock
+    private TaskExistenceFilter taskExistenceFilter;
+
+    @Mock
+    private TaskReadModel taskReadModel;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<UUID, ImportJob> jobs = new HashMap<>();
+    private final List<Task> savedTasks = new ArrayList<>();
+    private ValidatorFactory validatorFactory;
+    private TaskImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importService = new TaskImportServiceImpl(taskRepository, importJobRepository, taskExistenceFilter, taskReadModel,
+                validatorFactory.getValidator(), new ObjectMapper(), transactionManager,
+                2, 2, 2, 100, 1000, Duration.ofHours(1));
+
+        when(importJobRepository.findById(any())).thenAnswer(inv -> Optional.ofNullable(jobs.get(inv.<UUID>getArgument(0))));
+        when(importJobRepository.save(any())).thenAnswer(inv -> {
+            ImportJob job = inv.getArgument(0);
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(taskRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Task> tasks = inv.getArgument(0);
+            tasks.forEach(task -> task.setId(UUID.randomUUID()));
+            savedTasks.addAll(tasks);
+            return tasks;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+        validatorFactory.close();
+    }
+
+    @Test
+    void importTasks_csv_importsValidRowsAndReportsRejections() {
+        String csv = """
+                Title,Status,Description,Legacy Id
+                First,DONE,"Quoted, with comma",1
+                ,PENDING,No title,2
+
+                "Multi
+                line",in_progress,,3
+                Fourth,UNKNOWN,,4
+                Fifth,,"He said ""hi""\",5
+                """;
+
+        TaskImportService.Result result = importService.importTasks(null, ImportFormat.CSV, input(csv));
+
+        ImportJob job = result.job();
+        assertEquals(ImportStatus.COMPLETED, job.getStatus());
+        assertEquals(5, job.getRowsCommitted());
+        assertEquals(3, job.getImported());
+        assertEquals(2, job.getRejected());
+        assertEquals(List.of(2L, 4L), result.rejections().stream().map(TaskImportService.Rejection::row).toList());
+        assertTrue(result.rejections().get(0).message().startsWith("title:"));
+
+        assertEquals(List.of("First", "Multi\nline", "Fifth"), savedTasks.stream().map(Task::getTitle).toList());
+        assertEquals(List.of(Status.DONE, Status.IN_PROGRESS, Status.PENDING), savedTasks.stream().map(Task::getStatus).toList());
+        assertEquals("Quoted, with comma", savedTasks.get(0).getDescription());
+        assertNull(savedTasks.get(1).getDescription());
+        assertEquals("He said \"hi\"", savedTasks.get(2).getDescription());
+        verify(transactionManager, times(5)).commit(any());
+        verify(taskExistenceFilter, times(3)).add(any());
+        verify(taskReadModel, times(3)).upsert(any());
+    }
+
+    @Test
+    void importTasks_ndjson_rejectsMalformedLines() {
+        String ndjson = """
+                {"title":"First","status":"DONE"}
+                {"title":"Second","status":"LATER"}
+                not json
+                {"title":"Third"}
+                """;
+
+        TaskImportService.Result result = importService.importTasks(null, ImportFormat.NDJSON, input(ndjson));
+
+        assertEquals(ImportStatus.COMPLETED, result.job().getStatus());
+        assertEquals(4, result.job().getRowsCommitted());
+        assertEquals(List.of("First", "Third"), savedTasks.stream().map(Task::getTitle).toList());
+        assertEquals(List.of(2L, 3L), result.rejections().stream().map(TaskImportService.Rejection::row).toList());
+    }
+
+    @Test
+    void importTasks_writeFailure_marksJobFailedAndResumeSkipsCommittedRows() {
+        UUID jobId = UUID.randomUUID();
+        String csv = "title\n" + IntStream.rangeClosed(1, 7).mapToObj(i -> "Task " + i).collect(Collectors.joining("\n"));
+        AtomicInteger writes = new AtomicInteger();
+        when(taskRepository.saveAll(anyList())).thenAnswer(inv -> {
+            if (writes.incrementAndGet() == 2) {
+                throw new DataAccessResourceFailureException("Connection lost");
+            }
+            List<Task> tasks = inv.getArgument(0);
+            savedTasks.addAll(tasks);
+            return tasks;
+        });
+
+        TaskImportService.Result failed = importService.importTasks(jobId, ImportFormat.CSV, input(csv));
+
+        assertEquals(ImportStatus.FAILED, failed.job().getStatus());
+        assertEquals("Connection lost", failed.job().getLastError());
+        assertEquals(2, failed.job().getRowsCommitted());
+
+        TaskImportService.Result resumed = importService.importTasks(jobId, ImportFormat.CSV, input(csv));
+
+        assertEquals(ImportStatus.COMPLETED, resumed.job().getStatus());
+        assertEquals(7, resumed.job().getRowsCommitted());
+        assertEquals(7, resumed.job().getImported());
+        assertEquals(IntStream.rangeClosed(1, 7).mapToObj(i -> "Task " + i).toList(),
+                savedTasks.stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void importTasks_completedJob_doesNotReadInput() {
+        UUID jobId = UUID.randomUUID();
+        jobs.put(jobId, ImportJob.builder().id(jobId).format(ImportFormat.CSV).status(ImportStatus.COMPLETED).rowsCommitted(3).build());
+        InputStream input = mock(InputStream.class);
+
+        TaskImportService.Result result = importService.importTasks(jobId, ImportFormat.CSV, input);
+
+        assertEquals(ImportStatus.COMPLETED, result.job().getStatus());
+        verifyNoInteractions(input, taskRepository);
+    }
+
+    @Test
+    void importTasks_csv_readsPriorityAndDueDate() {
+        String csv = """
+                title,priority,due_at
+                Dated,1,2024-01-31T17:00
+                Default,,
+                Bad priority,high,
+                Out of range,9,
+                Bad date,2,tomorrow
+                """;
+
+        TaskImportService.Result result = importService.importTasks(null, ImportFormat.CSV, input(csv));
+
+        assertEquals(List.of("Dated", "Default"), savedTasks.stream().map(Task::getTitle).toList());
+        assertEquals(List.of(1, Task.DEFAULT_PRIORITY), savedTasks.stream().map(Task::getPriority).toList());
+        assertEquals(LocalDateTime.of(2024, 1, 31, 17, 0), savedTasks.get(0).getDueAt());
+        assertNull(savedTasks.get(1).getDueAt());
+        assertEquals(List.of(3L, 4L, 5L), result.rejections().stream().map(TaskImportService.Rejection::row).toList());
+        assertTrue(result.rejections().get(1).message().startsWith("priority:"));
+    }
+
+    @Test
+    void importTasks_descriptionTooLong_rejectsOnlyThatRow() {
+        String csv = "title,description\n"
+                + "First,Short\n"
+                + "Second," + "x".repeat(256) + "\n"
+                + "Third,\n";
+
+        TaskImportService.Result result = importService.importTasks(null, ImportFormat.CSV, input(csv));
+
+        assertEquals(ImportStatus.COMPLETED, result.job().getStatus());
+        assertEquals(3, result.job().getRowsCommitted());
+        assertEquals(List.of("First", "Third"), savedTasks.stream().map(Task::getTitle).toList());
+        assertEquals(List.of(2L), result.rejections().stream().map(TaskImportService.Rejection::row).toList());
+        assertTrue(result.rejections().get(0).message().startsWith("description:"));
+    }
+
+    @Test
+    void importTasks_csvRecordTooLong_rejectsRowAndReadsOn() {
+        String csv = "title,description\n"
+                + "First,\n"
+                + "Huge,\"" + "line\n".repeat(400) + "\",\"\"\"\"\n"
+                + "Third,\"a,b\"\n";
+
+        TaskImportService.Result result = importService.importTasks(null, ImportFormat.CSV, input(csv));
+
+        assertEquals(ImportStatus.COMPLETED, result.job().getStatus());
+        assertEquals(3, result.job().getRowsCommitted());
+        assertEquals(List.of("First", "Third"), savedTasks.stream().map(Task::getTitle).toList());
+        assertEquals("a,b", savedTasks.get(1).getDescription());
+        assertEquals(List.of(new TaskImportService.Rejection(2, "Record is longer than 1000 characters")), result.rejections());
+    }
+
+    @Test
+    void importTasks_ndjsonLineTooLong_rejectsLineAndReadsOn() {
+        String ndjson = "{\"title\":\"First\"}\r\n"
+                + "{\"title\":\"" + "x".repeat(2000) + "\"}\n"
+                + "{\"title\":\"Third\"}";
+
+        TaskImportService.Result result = importService.importTasks(null, ImportFormat.NDJSON, input(ndjson));
+
+        assertEquals(ImportStatus.COMPLETED, result.job().getStatus());
+        assertEquals(List.of("First", "Third"), savedTasks.stream().map(Task::getTitle).toList());
+        assertEquals(List.of(new TaskImportService.Rejection(2, "Record is longer than 1000 characters")), result.rejections());
+    }
+
+    @Test
+    void importTasks_resumeWithOtherFormat_throwsException() {
+        UUID jobId = UUID.randomUUID();
+        jobs.put(jobId, ImportJob.builder().id(jobId).format(ImportFormat.CSV).status(ImportStatus.FAILED).build());
+
+        assertThrows(ImportFormatMismatchException.class,
+                () -> importService.importTasks(jobId, ImportFormat.NDJSON, input("{\"title\":\"First\"}")));
+    }
+
+    @Test
+    void importTasks_malformedCsv_failsJob() {
+        TaskImportService.Result result = importService.importTasks(null, ImportFormat.CSV, input("description\nNo title column\n"));
+
+        assertEquals(ImportStatus.FAILED, result.job().getStatus());
+        assertEquals("CSV header must include a title column", result.job().getLastError());
+        verify(taskRepository, never()).saveAll(anyList());
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
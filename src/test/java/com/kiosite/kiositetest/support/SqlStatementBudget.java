@@ -0,0 +1,39 @@
+package com.kiosite.kiositetest.support;
+
+import com.kiosite.kiositetest.monitoring.SqlStatementStats;
+import com.kiosite.kiositetest.monitoring.SqlStatementStatsFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * MockMvc matchers asserting how many SQL statements a request issued, so that a change
+ * adding queries to an endpoint fails the build.
+ * <p>
+ * Needs {@code tasks.sql-stats.enabled=true} and a full JPA context, e.g.
+ * {@code @SpringBootTest} with {@code @AutoConfigureMockMvc}:
+ * <pre>{@code
+ * mockMvc.perform(delete("/tasks/{id}", id))
+ *         .andExpect(status().isNoContent())
+ *         .andExpect(SqlStatementBudget.statements(3));
+ * }</pre>
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    /**
+     * @param expected Exact number of statements the request may issue
+     * @return Matcher failing with the statements run when the count differs
+     */
+    public static ResultMatcher statements(int expected) {
+        return result -> {
+            SqlStatementStats stats = (SqlStatementStats) result.getRequest().getAttribute(SqlStatementStatsFilter.STATS_ATTRIBUTE);
+            assertNotNull(stats, "No SQL statement stats recorded; is tasks.sql-stats.enabled set?");
+            assertEquals(expected, stats.statementCount(),
+                    () -> "SQL statement budget exceeded or changed, statements run:\n" + String.join("\n", stats.statements()));
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.kiosite.kiositetest.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kiosite.kiositetest.controller.TaskController;
+import com.kiosite.kiositetest.controller.dto.TaskLookupResponseDTO;
+import com.kiosite.kiositetest.controller.dto.TaskResponseDTO;
+import com.kiosite.kiositetest.entity.Status;
+import com.kiosite.kiositetest.entity.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TaskWarmUpTest {
+
+    @Mock
+    private TaskController taskController;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ValidatorFactory validatorFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+
+        Task task = Task.builder().id(UUID.randomUUID()).title("Warm-up").status(Status.PENDING).build();
+        TaskResponseDTO response = TaskResponseDTO.fromEntity(task);
+        when(taskController.createTask(any(), any(), any())).thenReturn(ResponseEntity.ok(task));
+        when(taskController.getTaskById(any())).thenReturn(ResponseEntity.ok(response));
+        when(taskController.getAllTasks(any(), anyInt(), anyInt(), any(), anyBoolean()))
+                .thenReturn(ResponseEntity.ok(new PageImpl<>(List.of(response), PageRequest.of(0, 10), 1)));
+        when(taskController.getNextTasks(anyInt())).thenReturn(ResponseEntity.ok(List.of(response)));
+        when(taskController.lookupTasks(any()))
+                .thenReturn(ResponseEntity.ok(new TaskLookupResponseDTO(List.of(response), List.of())));
+        when(taskController.updateTask(any(), any())).thenReturn(ResponseEntity.ok(response));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void warmUp_stopsOnceCompilationSettlesAndRollsBack() {
+        AtomicLong compilation = new AtomicLong();
+        // Compilation stops growing once the warm-up has started
+        TaskWarmUp warmUp = warmUp(Duration.ofMinutes(1), () -> compilation.get() < 1_000 ? compilation.addAndGet(500) : compilation.get());
+
+        TaskWarmUp.Result result = warmUp.warmUp();
+
+        assertTrue(result.stable());
+        assertEquals(2, result.rounds());
+        assertEquals(10, result.iterations());
+        verify(taskController, times(10)).deleteTask(any());
+        // The transaction manager rolls back a rollback-only status on commit
+        ArgumentCaptor<TransactionStatus> statuses = ArgumentCaptor.forClass(TransactionStatus.class);
+        verify(transactionManager, times(10)).commit(statuses.capture());
+        assertTrue(statuses.getAllValues().stream().allMatch(TransactionStatus::isRollbackOnly));
+
+        assertEquals(10, meterRegistry.get("tasks.warmup.iterations").gauge().value());
+        assertEquals(1, meterRegistry.get("tasks.warmup.stable").gauge().value());
+        assertNotNull(meterRegistry.get("tasks.warmup.duration").timeGauge());
+        assertNotNull(meterRegistry.get("tasks.warmup.iteration.time").tag("round", "last").timeGauge());
+    }
+
+    @Test
+    void warmUp_withoutCompilationClock_runsUntilMaxDuration() {
+        TaskWarmUp.Result result = warmUp(Duration.ofMillis(200), null).warmUp();
+
+        assertFalse(result.stable());
+        assertTrue(result.duration().compareTo(Duration.ofMillis(200)) >= 0);
+        assertEquals(0, meterRegistry.get("tasks.warmup.stable").gauge().value());
+    }
+
+    @Test
+    void warmUp_failingRequest_stopsWithoutThrowing() {
+        when(taskController.getTaskById(any())).thenThrow(new IllegalStateException("Boom"));
+
+        TaskWarmUp.Result result = warmUp(Duration.ofMinutes(1), () -> 0).warmUp();
+
+        assertFalse(result.stable());
+        assertEquals(0, result.rounds());
+        verify(transactionManager).rollback(any(TransactionStatus.class));
+    }
+
+    private TaskWarmUp warmUp(Duration maxDuration, LongSupplier compilationMillis) {
+        return new TaskWarmUp(taskController, new ObjectMapper().findAndRegisterModules(), validatorFactory.getValidator(),
+                entityManager, transactionManager, meterRegistry, maxDuration, 5, 0.05, compilationMillis);
+    }
+}